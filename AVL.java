@@ -1,54 +1,172 @@
 package project6;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * This class is a generic Binary Search Tree class. 
  * Contains a private static Node class
+ * Elements are ordered by their natural ordering, or by the Comparator
+ * given at construction, so they only need to be Comparable when no
+ * Comparator is given.
+ * Every search is a single descent that never takes more steps than the
+ * height of the root. Taking more steps can only mean another thread is
+ * restructuring the tree, so the search fails fast with a
+ * ConcurrentModificationException instead of looping, which is what lets
+ * ConcurrentAVL run searches without a lock.
  * @author Alan Chen
  *
  * @param <E> generic element
  */
-public class AVL <E extends Comparable<E>> implements Iterable <E>{
+public class AVL <E> implements Iterable <E>{
 	
 	private Node<E> root;
 	private int size;
+	//number of structural modifications, used by iterators to fail fast
+	private int modCount;
+	//null when the natural ordering is used
+	private final Comparator<? super E> comparator;
+	//null while metrics are off
+	private TreeMetrics metrics;
 	
 	public AVL() {
 		root = null;
 		size = 0;
+		comparator = null;
+	}
+	
+	/**
+	 * Creates an empty AVL ordered by the given Comparator
+	 * @param comparator ordering of the elements, null for natural ordering
+	 */
+	public AVL(Comparator<? super E> comparator) {
+		root = null;
+		size = 0;
+		this.comparator = comparator;
 	}
 	
 	public AVL(E[] collection) throws IllegalArgumentException {
 		if(collection == null) {
 			throw new IllegalArgumentException("Null argument not allowed");
 		}
-		Arrays.sort(collection);
+		comparator = null;
+		//sorted and compacted in a copy, the caller's array is left as it was
+		E[] sorted = Arrays.copyOf(collection, collection.length);
+		Arrays.sort(sorted);
 
-		adder(collection, 0, collection.length-1);
+		int unique = removeDuplicates(sorted);
+		root = build(sorted, 0, unique - 1);
+		size = unique;
+	}
+	
+	/**
+	 * Compares two elements with the Comparator, or with their natural
+	 * ordering if this AVL has none
+	 * @param a first element
+	 * @param b second element
+	 * @return negative, zero or positive as a is less than, equal to or greater than b
+	 * @throws ClassCastException if the elements can not be compared
+	 */
+	@SuppressWarnings("unchecked")
+	private int compare(E a, E b) {
+		if(metrics != null) {
+			metrics.compared();
+		}
+		if(comparator != null) {
+			return comparator.compare(a, b);
+		}
+		return ((Comparable<? super E>) a).compareTo(b);
+	}
+	
+	/**
+	 * Returns the Comparator ordering this AVL
+	 * @return comparator, or null if the natural ordering is used
+	 */
+	public Comparator<? super E> comparator() {
+		return comparator;
+	}
+	
+	/**
+	 * Starts recording comparisons, searches, rotations and predecessor removals
+	 * into the given TreeMetrics, or stops recording
+	 * @param metrics where to record, null to turn metrics off
+	 */
+	public void setMetrics(TreeMetrics metrics) {
+		this.metrics = metrics;
+	}
+	
+	/**
+	 * Returns the TreeMetrics this AVL records into
+	 * @return metrics, or null if they are off
+	 */
+	public TreeMetrics metrics() {
+		return metrics;
+	}
+	
+	/**
+	 * Records a search in the metrics if they are on
+	 * @param depth number of Nodes the search visited
+	 */
+	private void searched(int depth) {
+		if(metrics != null) {
+			metrics.searched(depth);
+		}
 	}
 	
 	/**
-	 * Adds elements from array into the AVL so that the tree is balanced
-	 * @param arr array of E
+	 * Builds a perfectly balanced tree out of a sorted array without duplicates
+	 * in O(n) time. Each median becomes the root of its subarray, and height,
+	 * leftSize and rightSize are filled in on the way back up instead of
+	 * going through add() and checkBalance for every element.
+	 * @param arr sorted array of E
 	 * @param low left subindex
 	 * @param high right subindex
+	 * @return root of the balanced tree
 	 */
-	private void adder(E[] arr, int low, int high) {
-		int mid = (low+high)/2;
-		
-		if(low >= high) {
-			this.add(arr[mid]);
+	@SuppressWarnings("unchecked")
+	private Node<E> build(Object[] arr, int low, int high) {
+		if(low > high) {
+			return null;
 		}
-		else {
-			this.add(arr[mid]);
-			adder(arr, low, mid-1);
-			adder(arr, mid+1, high);
+		int mid = (low + high) >>> 1;
+		
+		Node<E> node = new Node<E>((E) arr[mid]);
+		node.left = build(arr, low, mid - 1);
+		node.right = build(arr, mid + 1, high);
+		node.leftSize = mid - low;
+		node.rightSize = high - mid;
+		updateHeight(node);
+		return node;
+	}
+	
+	/**
+	 * Moves the distinct elements of a sorted array to its front, in order
+	 * @param arr sorted array
+	 * @return number of distinct elements
+	 */
+	@SuppressWarnings("unchecked")
+	private int removeDuplicates(Object[] arr) {
+		int unique = 0;
+		for(int i = 0; i < arr.length; i++) {
+			if(unique == 0 || compare((E) arr[unique - 1], (E) arr[i]) != 0) {
+				arr[unique++] = arr[i];
+			}
 		}
+		return unique;
 	}
 	
 	/**
@@ -78,93 +196,515 @@ public class AVL <E extends Comparable<E>> implements Iterable <E>{
 		}	
 	}
 
+	/**
+	 * Order in which an Itr visits the Nodes of the AVL
+	 */
+	private enum Order { IN, PRE, POST }
+
 	/**
 	 * Iterator class that can iterate through the AVL
-	 * The constructor takes in a parameter that acts as a keyword
-	 * so the proper iterator is returned.
-	 * @author Alan Chen
+	 * The constructor takes in the traversal order so the proper iterator is returned.
+	 * Walks the tree lazily with an explicit stack that never holds more than
+	 * height() Nodes, so creating the iterator is O(height) rather than O(n).
+	 * Fails fast with a ConcurrentModificationException if the AVL is modified
+	 * by anything other than this iterator's remove().
 	 */
 	private class Itr implements Iterator<E>{
 		
+		private final Order order;
+		private final ArrayDeque<Node<E>> stack = new ArrayDeque<Node<E>>();
+		//rest of a preOrder or postOrder walk, copied out by the first remove()
+		private ArrayDeque<E> rest;
+		private E lastReturned;
+		private int expectedModCount = modCount;
 		
-		//we can create an iterator with String keyword as argument
-		
-		private ArrayList<Object> collection = new ArrayList<Object>(size);
-		public int count = 0;
-		public Itr(String keyword) {
-			collection = traverse(root, collection, keyword);
+		public Itr(Order order) {
+			this.order = order;
+			if(root == null) {
+				return;
+			}
+			TreeOperationEvent event = new TreeOperationEvent();
+			event.begin();
+			if(order == Order.PRE) {
+				stack.push(root);
+			}
+			else if(order == Order.IN) {
+				pushLeft(root);
+			}
+			else {
+				pushLeftmostLeaf(root);
+			}
+			commit(event, "iterator", stack.size());
 		}
 
 		@Override
 		public boolean hasNext() {
-			return count < collection.size();
+			return rest != null ? !rest.isEmpty() : !stack.isEmpty();
 		}
 
-		@SuppressWarnings("unchecked")
 		@Override
-		public E next() throws NoSuchElementException{
+		public E next() throws NoSuchElementException, ConcurrentModificationException{
+			if(modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
 			if(!hasNext()) {
 				throw new NoSuchElementException("No next element");
 			}
-			return (E) collection.get(count++);
+			if(rest != null) {
+				lastReturned = rest.poll();
+				return lastReturned;
+			}
+			Node<E> node = advance();
+			lastReturned = node.data;
+			return node.data;
 		}
 		
 		/**
-		 * unimplemented method
+		 * Pops the next Node of the walk and pushes the Nodes that follow it
+		 * @return next Node in the iterator's order
 		 */
-		public void remove() throws UnsupportedOperationException {}
+		private Node<E> advance() {
+			Node<E> node = stack.pop();
+			
+			//inOrder traversal
+			if(order == Order.IN) {
+				pushLeft(node.right);
+			}
+			//preOrder traversal
+			else if(order == Order.PRE) {
+				if(node.right != null) {
+					stack.push(node.right);
+				}
+				if(node.left != null) {
+					stack.push(node.left);
+				}
+			}
+			//postOrder traversal, node was a left child so its sibling subtree comes next
+			else if(!stack.isEmpty() && stack.peek().left == node && stack.peek().right != null) {
+				pushLeftmostLeaf(stack.peek().right);
+			}
+			return node;
+		}
 		
 		/**
-		 * Traversal method that puts the elements into ArrayList in proper order
-		 * @param root
-		 * @param arr
-		 * @param order
-		 * @return
+		 * Removes the last element returned by next() from the AVL.
+		 * Removing can restructure the tree. The inOrder iterator then seeks back
+		 * to the successor of the removed element in O(height) time, since the
+		 * elements it has left are exactly the greater ones. The preOrder and
+		 * postOrder walks have no such bound, and a rotation or a predecessor
+		 * taking the removed element's place moves Nodes between the subtrees on
+		 * the stack, so their first remove() copies the rest of the walk out of
+		 * the tree in O(n) and the iterator goes on from the copy.
+		 * @throws IllegalStateException if next() has not been called since the last remove()
 		 */
-		private ArrayList<Object> traverse(Node<E> root, ArrayList<Object> arr, String order) {
-			
-			if(order.equals("in") && root != null) {
-				traverse(root.left, arr, order);
-				arr.add(root.data);
-				traverse(root.right, arr, order);
+		@Override
+		public void remove() throws IllegalStateException {
+			if(lastReturned == null) {
+				throw new IllegalStateException("next has not been called");
 			}
-			
-			if(order.equals("pre") && root != null) {
-				arr.add(root.data);
-				traverse(root.left, arr, order);
-				traverse(root.right, arr, order);
+			if(modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if(order != Order.IN && rest == null) {
+				rest = new ArrayDeque<E>();
+				while(!stack.isEmpty()) {
+					rest.add(advance().data);
+				}
 			}
+			AVL.this.remove(lastReturned);
+			expectedModCount = modCount;
 			
-			if(order.equals("post") && root != null) {
-				traverse(root.left, arr, order);
-				traverse(root.right, arr, order);
-				arr.add(root.data);
+			if(order == Order.IN) {
+				//the remaining elements are the ones greater than the removed element
+				stack.clear();
+				Node<E> current = root;
+				while(current != null) {
+					if(compare(current.data, lastReturned) > 0) {
+						stack.push(current);
+						current = current.left;
+					}
+					else {
+						current = current.right;
+					}
+				}
+			}
+			lastReturned = null;
+		}
+		
+		/**
+		 * Pushes the given Node and its chain of left children
+		 * @param node top of the chain
+		 */
+		private void pushLeft(Node<E> node) {
+			while(node != null) {
+				stack.push(node);
+				node = node.left;
+			}
+		}
+		
+		/**
+		 * Pushes the path from the given Node down to the first Node visited
+		 * in postOrder, preferring left children over right children
+		 * @param node top of the path
+		 */
+		private void pushLeftmostLeaf(Node<E> node) {
+			while(node != null) {
+				stack.push(node);
+				node = node.left != null ? node.left : node.right;
 			}
-			return arr;			
 		}
 	}
 	
 	/**
-	 * Updates the root with the added Node with given element
+	 * Lazy iterator over the elements between two bounds, ascending or descending.
+	 * Seeks to the first element in O(height), then walks on demand with an
+	 * explicit stack of at most height() Nodes. Fails fast like Itr.
+	 */
+	private class RangeItr implements Iterator<E>{
+		
+		private final E fromElement;
+		private final boolean fromInclusive;
+		private final E toElement;
+		private final boolean toInclusive;
+		private final boolean descending;
+		private final ArrayDeque<Node<E>> stack = new ArrayDeque<Node<E>>();
+		private E lastReturned;
+		private int expectedModCount = modCount;
+		
+		public RangeItr(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive, boolean descending) {
+			this.fromElement = fromElement;
+			this.fromInclusive = fromInclusive;
+			this.toElement = toElement;
+			this.toInclusive = toInclusive;
+			this.descending = descending;
+			TreeOperationEvent event = new TreeOperationEvent();
+			event.begin();
+			if(descending) {
+				seek(toElement, toInclusive);
+			}
+			else {
+				seek(fromElement, fromInclusive);
+			}
+			commit(event, "rangeIterator", stack.size());
+		}
+		
+		/**
+		 * Pushes every Node on the search path for bound that comes at or after
+		 * bound in the direction of iteration, so the top of the stack is the
+		 * first element to return
+		 * @param bound where iteration starts
+		 * @param inclusive whether bound itself is returned
+		 */
+		private void seek(E bound, boolean inclusive) {
+			stack.clear();
+			Node<E> current = root;
+			while(current != null) {
+				int cmp = descending ? compare(bound, current.data) : compare(current.data, bound);
+				if(cmp > 0 || (cmp == 0 && inclusive)) {
+					stack.push(current);
+					current = descending ? current.right : current.left;
+				}
+				else {
+					current = descending ? current.left : current.right;
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			if(stack.isEmpty()) {
+				return false;
+			}
+			//stop at the far bound
+			int cmp = descending ? compare(fromElement, stack.peek().data) : compare(stack.peek().data, toElement);
+			return cmp < 0 || (cmp == 0 && (descending ? fromInclusive : toInclusive));
+		}
+
+		@Override
+		public E next() throws NoSuchElementException, ConcurrentModificationException{
+			if(modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if(!hasNext()) {
+				throw new NoSuchElementException("No next element");
+			}
+			Node<E> node = stack.pop();
+			Node<E> current = descending ? node.left : node.right;
+			while(current != null) {
+				stack.push(current);
+				current = descending ? current.right : current.left;
+			}
+			lastReturned = node.data;
+			return node.data;
+		}
+		
+		/**
+		 * Removes the last element returned by next() from the AVL, then seeks
+		 * past it again in O(height) time
+		 * @throws IllegalStateException if next() has not been called since the last remove()
+		 */
+		@Override
+		public void remove() throws IllegalStateException {
+			if(lastReturned == null) {
+				throw new IllegalStateException("next has not been called");
+			}
+			if(modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			AVL.this.remove(lastReturned);
+			expectedModCount = modCount;
+			seek(lastReturned, false);
+			lastReturned = null;
+		}
+	}
+	
+	/**
+	 * Spliterator over the elements at in order indices [index, fence).
+	 * Splitting halves the index range in O(1) without touching the tree, so
+	 * both halves are exactly sized. Traversal first seeks down to index using
+	 * leftSize in O(height), then walks in order with a stack of at most
+	 * height() Nodes.
+	 */
+	private class Splitr implements Spliterator<E>{
+		
+		private int index;
+		private final int fence;
+		private final int expectedModCount;
+		//null until traversal starts, and again after a split moves index
+		private ArrayDeque<Node<E>> stack;
+		
+		public Splitr(int index, int fence, int expectedModCount) {
+			this.index = index;
+			this.fence = fence;
+			this.expectedModCount = expectedModCount;
+		}
+		
+		/**
+		 * Pushes the Nodes on the path to the element at index that come at
+		 * or after it, so the top of the stack is that element
+		 */
+		private void seek() {
+			stack = new ArrayDeque<Node<E>>();
+			Node<E> current = root;
+			int target = index;
+			while(current != null) {
+				if(target <= current.leftSize) {
+					stack.push(current);
+					if(target == current.leftSize) {
+						return;
+					}
+					current = current.left;
+				}
+				else {
+					target -= current.leftSize + 1;
+					current = current.right;
+				}
+			}
+		}
+		
+		/**
+		 * Pops the next Node and pushes its in order successors
+		 * @return data of the next Node
+		 */
+		private E advance() throws ConcurrentModificationException {
+			if(stack == null) {
+				seek();
+			}
+			Node<E> node = stack.poll();
+			if(node == null) {
+				//sizes and structure disagree
+				throw new ConcurrentModificationException();
+			}
+			Node<E> current = node.right;
+			while(current != null) {
+				stack.push(current);
+				current = current.left;
+			}
+			index++;
+			return node.data;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super E> action) throws NullPointerException, ConcurrentModificationException {
+			if(action == null) {
+				throw new NullPointerException("Null action");
+			}
+			if(index >= fence) {
+				return false;
+			}
+			if(modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			action.accept(advance());
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super E> action) throws NullPointerException, ConcurrentModificationException {
+			if(action == null) {
+				throw new NullPointerException("Null action");
+			}
+			while(index < fence) {
+				action.accept(advance());
+			}
+			if(modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+
+		@Override
+		public Spliterator<E> trySplit() {
+			int mid = (index + fence) >>> 1;
+			if(mid <= index) {
+				return null;
+			}
+			Splitr prefix = new Splitr(index, mid, expectedModCount);
+			index = mid;
+			stack = null;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return fence - index;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED | Spliterator.SORTED
+					| Spliterator.DISTINCT | Spliterator.NONNULL;
+		}
+
+		@Override
+		public Comparator<? super E> getComparator() {
+			return comparator;
+		}
+	}
+	
+	/**
+	 * Adds the given element if it is not in the AVL yet.
+	 * Commits a TreeOperationEvent if the add runs past its threshold.
 	 * @param e element being added to AVL
 	 * @return whether element has been added or not
 	 * @throws NullPointerException when element is null
 	 */
-	public boolean add( E e ) throws NullPointerException{
+	public boolean add(E e) throws NullPointerException {
+		TreeOperationEvent event = new TreeOperationEvent();
+		event.begin();
+		int oldSize = size;
+		int visited = insert(e);
+		commit(event, "add", visited);
+		return size != oldSize;
+	}
+	
+	/**
+	 * Fills in and commits an operation event if it ran past its threshold
+	 * @param event event begun when the operation started
+	 * @param operation name of the operation
+	 * @param visited number of Nodes the operation visited
+	 */
+	private void commit(TreeOperationEvent event, String operation, long visited) {
+		if(event.shouldCommit()) {
+			event.structure = "AVL";
+			event.operation = operation;
+			event.size = size;
+			event.visited = visited;
+			event.commit();
+		}
+	}
+	
+	/**
+	 * Updates the root with the added Node with given element.
+	 * Descends once with a single comparison per level, then walks the
+	 * recorded path back up to fix sizes and heights and rebalance.
+	 * @param e element being added to AVL
+	 * @return number of Nodes visited, size grows by one if element has been added
+	 * @throws NullPointerException when element is null
+	 */
+	private int insert(E e) throws NullPointerException{
 		if(e == null) {
 			throw new NullPointerException ("element is null");
 		}
-        int oldSize = size();
-        
-        if(!this.contains((Object)e)) {
-        root = add ( e, root );
-
-        }
-
-        if (oldSize == size())
-            return false;
-        return true;
-    }
+		if(root == null) {
+			searched(0);
+			root = new Node<E>(e);
+			size++;
+			modCount++;
+			return 0;
+		}
+		
+		Node<E>[] path = newPath();
+		int depth = 0;
+		int cmp = 0;
+		Node<E> current = root;
+		while(current != null) {
+			cmp = compare(e, current.data);
+			if(cmp == 0) {
+				searched(depth + 1);
+				return depth + 1;
+			}
+			path[depth++] = current;
+			current = cmp < 0 ? current.left : current.right;
+		}
+		searched(depth);
+		
+		Node<E> parent = path[depth - 1];
+		if(cmp < 0) {
+			parent.left = new Node<E>(e);
+			parent.leftSize++;
+		}
+		else {
+			parent.right = new Node<E>(e);
+			parent.rightSize++;
+		}
+		retrace(path, depth, 1);
+		size++;
+		modCount++;
+		return depth;
+	}
+	
+	/**
+	 * Allocates room for a search path. An AVL is never deeper than the height
+	 * of its root, so the path never needs to grow.
+	 * @return array for the Nodes of a path from the root
+	 */
+	@SuppressWarnings("unchecked")
+	private Node<E>[] newPath() {
+		return (Node<E>[]) new Node[height()];
+	}
+	
+	/**
+	 * Walks back up a search path after a Node was linked in or unlinked below
+	 * the last Node of the path, whose size on that side is already updated.
+	 * Updates the sizes and heights of the other Nodes on the path and rebalances
+	 * each of them, then sets the root.
+	 * @param path Nodes from the root down
+	 * @param depth number of Nodes in the path
+	 * @param delta change in size, 1 after an add and -1 after a remove
+	 */
+	private void retrace(Node<E>[] path, int depth, int delta) {
+		Node<E> child = null;
+		Node<E> balanced = null;
+		
+		for(int i = depth - 1; i >= 0; i--) {
+			Node<E> node = path[i];
+			//relink the rebalanced child, it may have been rotated
+			if(child != null) {
+				if(node.left == child) {
+					node.left = balanced;
+					node.leftSize += delta;
+				}
+				else {
+					node.right = balanced;
+					node.rightSize += delta;
+				}
+			}
+			updateHeight(node);
+			child = node;
+			balanced = checkBalance(node);
+		}
+		root = balanced;
+	}
 
 	
 	
@@ -178,18 +718,30 @@ public class AVL <E extends Comparable<E>> implements Iterable <E>{
         	//right tree's left side is greater
         	if(balanceFactor(root.right) < 0) {
         		root = balanceRL(root);
+        		if(metrics != null) {
+        			metrics.rotated(TreeMetrics.Rotation.RL);
+        		}
         	}
         	else {
         		root = balanceRR(root);
+        		if(metrics != null) {
+        			metrics.rotated(TreeMetrics.Rotation.RR);
+        		}
         	}
         }
         else if(balance < -1) {
         	//left subtree is right heavy
         	if(balanceFactor(root.left) > 0) { //needs to be 0 because we already know that the BF was not greater than 1 when we recurred up
         		root = balanceLR(root);
+        		if(metrics != null) {
+        			metrics.rotated(TreeMetrics.Rotation.LR);
+        		}
         	}
         	else {
         		root = balanceLL(root);
+        		if(metrics != null) {
+        			metrics.rotated(TreeMetrics.Rotation.LL);
+        		}
         	}
         }
         return root;
@@ -222,48 +774,42 @@ public class AVL <E extends Comparable<E>> implements Iterable <E>{
 	
 	
 	
-	/**
-	 * 
-	 * @param item being added
-	 * @param root of AVL
-	 * @return updated Node after element has been added (if possible)
-	 */
-	private Node<E> add ( E item, Node<E> root ) {
-
-        if ( root == null || root.data == null) {
-        	size++;
-            return new Node<E>(item);
-        }
-        if ( root.data.equals(item )) {
-            return root;
-        }
-        else if ( ((Comparable<E>) root.data).compareTo(item) < 0  ) {
-            root.right =  add ( item, root.right );
-            root.rightSize++;
-        }
-        else {
-            root.left = add ( item, root.left);
-            root.leftSize++;
-        }
-        this.updateHeight(root);
-        
-        root = (Node<E>) checkBalance(root);
-        
-        return root;
-    }
-	
 	/**
 	 * Adds all of the elements in the specified collection to this tree.
+	 * When the collection is large compared to the tree, the elements are sorted,
+	 * merged with the tree's elements and the whole tree is rebuilt in
+	 * O(n + m log m) instead of m separate O(log n) inserts. Collections that are
+	 * already sorted make the sort linear.
 	 * @param collection to be added to AVL
 	 * @return whether AVL has changed or not
 	 * @throws NullPointerException if collection is null or if any of its elements are null
 	 */
+	@SuppressWarnings("unchecked")
 	public boolean addAll(Collection<? extends E> collection) throws NullPointerException {
 		
 		if(collection == null) {
 			throw new NullPointerException("Collection is null");
 		}
 		int oldSize = size;
+		int m = collection.size();
+		
+		//rebuilding costs n + m log m, adding one at a time costs m log (n + m)
+		if(m > 1 && (long) m * (32 - Integer.numberOfLeadingZeros(size + m)) >= (long) size + m) {
+			Object[] incoming = collection.toArray();
+			for(Object e: incoming) {
+				if(e == null) {
+					throw new NullPointerException("Null element in collection");
+				}
+			}
+			Arrays.sort((E[]) incoming, comparator);
+			int unique = removeDuplicates(incoming);
+			
+			Object[] merged = merge(toArray(), size, incoming, unique);
+			root = build(merged, 0, merged.length - 1);
+			size = merged.length;
+			modCount++;
+			return oldSize != size;
+		}
 
 		for(E e: collection) {
 			if(e == null) {
@@ -274,6 +820,44 @@ public class AVL <E extends Comparable<E>> implements Iterable <E>{
 		return oldSize != size();
 	}
 	
+	/**
+	 * Merges two sorted arrays without duplicates into one sorted array,
+	 * keeping a single copy of elements that are in both
+	 * @param a first sorted array
+	 * @param aLength number of elements used from a
+	 * @param b second sorted array
+	 * @param bLength number of elements used from b
+	 * @return merged array, trimmed to the number of distinct elements
+	 */
+	@SuppressWarnings("unchecked")
+	private Object[] merge(Object[] a, int aLength, Object[] b, int bLength) {
+		Object[] merged = new Object[aLength + bLength];
+		int i = 0;
+		int j = 0;
+		int count = 0;
+		
+		while(i < aLength && j < bLength) {
+			int cmp = compare((E) a[i], (E) b[j]);
+			if(cmp < 0) {
+				merged[count++] = a[i++];
+			}
+			else if(cmp > 0) {
+				merged[count++] = b[j++];
+			}
+			else {
+				merged[count++] = a[i++];
+				j++;
+			}
+		}
+		while(i < aLength) {
+			merged[count++] = a[i++];
+		}
+		while(j < bLength) {
+			merged[count++] = b[j++];
+		}
+		return count == merged.length ? merged : Arrays.copyOf(merged, count);
+	}
+	
 	
 	/**
 	 * Returns the least element greater than or equal to e
@@ -281,62 +865,67 @@ public class AVL <E extends Comparable<E>> implements Iterable <E>{
 	 * @param e element
 	 * @return least element greater than e
 	 */
-	public E ceiling(E e) {
-		if(e == null) {
-			throw new NullPointerException("Null argument");
-		}
-		else if(e.getClass() != root.data.getClass()) {
-			throw new ClassCastException("Wrong object type");
-		}
-		Node<E> current = root;
-
-		return ceiling(current, e);
+	public E ceiling(E e) throws NullPointerException, ClassCastException {
+		return nearest(e, false, true);
 	}
 	
 	/**
-	 * Returns proper element that is the least element
-	 * greater than given element
-	 * back to ceiling wrapper method
-	 * @param root
+	 * Finds the closest element below or above e in a single descent, keeping
+	 * the last Node passed on the wanted side of e
 	 * @param e element
-	 * @return E smallest element that is greater than given element
+	 * @param below whether the element searched for is below e
+	 * @param inclusive whether e itself counts
+	 * @return closest element, or null if there is none
+	 * @throws NullPointerException when element is null
+	 * @throws ClassCastException when element can not be compared
 	 */
-	private E ceiling( Node<E> root, E e) {
-		if(root == null) {
-			return null;
-		}
-		if(((Comparable<E>) root.data).compareTo(e) < 0) {
-			return ceiling(root.right, e);
+	private E nearest(E e, boolean below, boolean inclusive) throws NullPointerException, ClassCastException {
+		if(e == null) {
+			throw new NullPointerException("Null argument");
 		}
-		
-		E c = ceiling(root.left, e);
-		
-		if(c != null && ((Comparable<E>) c).compareTo((E)e) >= 0) {
-			return c;
+		Node<E> current = root;
+		Node<E> found = null;
+		int steps = height();
+		int depth = 0;
+		while(current != null) {
+			if(steps-- == 0) {
+				throw new ConcurrentModificationException();
+			}
+			depth++;
+			int cmp = compare(current.data, e);
+			if(cmp == 0 && inclusive) {
+				searched(depth);
+				return current.data;
+			}
+			if(below ? cmp < 0 : cmp > 0) {
+				found = current;
+				current = below ? current.right : current.left;
+			}
+			else {
+				current = below ? current.left : current.right;
+			}
 		}
-		else {
-			return (E)root.data;
-		}	
+		searched(depth);
+		return found == null ? null : found.data;
 	}
 	
 	/**
 	 * Clears the Binary Search Tree
 	 */
 	public void clear() {
-		root.leftSize = 0;
-		root.rightSize = 0;
 		root = null;
 		size = 0;
-		
-		this.updateHeight(root);
+		modCount++;
 	}
 	
+	/**
+	 * Copies the AVL Node by Node in O(n) time, keeping its Comparator
+	 * @return copy of this AVL
+	 */
 	public AVL<E> clone() {
-		AVL<E> clone = new AVL<E>();
-		Iterator<E> pre = this.preorderIterator();
-		while(pre.hasNext()) {
-			clone.add(pre.next());
-		}
+		AVL<E> clone = new AVL<E>(comparator);
+		clone.root = copy(root);
+		clone.size = size;
 		return clone;
 	}
 	
@@ -354,30 +943,23 @@ public class AVL <E extends Comparable<E>> implements Iterable <E>{
 		if(o == null) {
 			throw new NullPointerException("Null parameter");
 		}
-		if(root == null) {
-			return false;
-		}
-		if(o.getClass() != root.data.getClass()) {
-			throw new ClassCastException("Parameter is of wrong type");
-		}
-		if(o.equals(root.data)) {
-			return true;
-		}
 		Node<E> current  = root;
+		int steps = height();
+		int depth = 0;
 		while(current != null) {
-			
-			if(((Comparable<E>)current.data).compareTo((E) o) == 0) {
-				return true;
-			}
-			
-			else if(((Comparable<E>)current.data).compareTo((E) o) < 0) {
-				current = current.right;
+			if(steps-- == 0) {
+				throw new ConcurrentModificationException();
 			}
-			else {
-				current = current.left;
+			depth++;
+			int cmp = compare((E) o, current.data);
+			if(cmp == 0) {
+				searched(depth);
+				return true;
 			}
+			current = cmp < 0 ? current.left : current.right;
 		}
 		//object not found
+		searched(depth);
 		return false;
 	}
 	
@@ -403,6 +985,378 @@ public class AVL <E extends Comparable<E>> implements Iterable <E>{
 		return true;
 	}
 	
+	/**
+	 * Counts the elements strictly greater than e in O(log n) time
+	 * @param e element
+	 * @return number of elements greater than e
+	 * @throws NullPointerException when element is null
+	 */
+	public int countGreaterThan(E e) throws NullPointerException, ClassCastException {
+		if(e == null) {
+			throw new NullPointerException("Null argument");
+		}
+		return size - countBelow(e, true);
+	}
+	
+	/**
+	 * Counts the elements strictly less than e in O(log n) time
+	 * @param e element
+	 * @return number of elements less than e
+	 * @throws NullPointerException when element is null
+	 */
+	public int countLessThan(E e) throws NullPointerException, ClassCastException {
+		if(e == null) {
+			throw new NullPointerException("Null argument");
+		}
+		return countBelow(e, false);
+	}
+	
+	/**
+	 * Counts the elements within the given range [fromElement, toElement], inclusive,
+	 * in O(log n) time without visiting them
+	 * @param fromElement lower bound
+	 * @param toElement upper bound
+	 * @return number of elements within the range
+	 * @throws NullPointerException
+	 * @throws IllegalArgumentException
+	 */
+	public int countRange(E fromElement, E toElement) throws NullPointerException, IllegalArgumentException {
+		return countRange(fromElement, true, toElement, true);
+	}
+	
+	/**
+	 * Counts the elements between fromElement and toElement in O(log n) time,
+	 * from the leftSize of the Nodes on two search paths
+	 * @param fromElement lower bound
+	 * @param fromInclusive whether fromElement itself is counted
+	 * @param toElement upper bound
+	 * @param toInclusive whether toElement itself is counted
+	 * @return number of elements within the range
+	 * @throws NullPointerException
+	 * @throws IllegalArgumentException
+	 */
+	public int countRange(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive) throws NullPointerException, IllegalArgumentException {
+		checkRange(fromElement, toElement);
+		//an empty range such as (e, e) would otherwise count -1
+		return Math.max(0, countBelow(toElement, toInclusive) - countBelow(fromElement, !fromInclusive));
+	}
+	
+	/**
+	 * Counts the elements less than e, or less than or equal to e, in a single descent
+	 * @param e element
+	 * @param inclusive whether e itself is counted
+	 * @return number of elements below e
+	 */
+	private int countBelow(E e, boolean inclusive) {
+		int count = 0;
+		Node<E> current = root;
+		while(current != null) {
+			int cmp = compare(current.data, e);
+			if(cmp == 0) {
+				return count + current.leftSize + (inclusive ? 1 : 0);
+			}
+			if(cmp < 0) {
+				count += current.leftSize + 1;
+				current = current.right;
+			}
+			else {
+				current = current.left;
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * Set operations done by SetTask
+	 */
+	private enum SetOp { UNION, INTERSECTION, DIFFERENCE, SYMMETRIC_DIFFERENCE }
+	
+	//combined size of the two subtrees below which a SetTask stops forking
+	private static final int PARALLEL_THRESHOLD = 1 << 13;
+	
+	/**
+	 * Adds every element of other to this AVL
+	 * @param other AVL with the same ordering, left unchanged
+	 * @return whether this AVL has changed or not
+	 * @throws NullPointerException if other is null
+	 * @throws IllegalArgumentException if other is ordered by a different Comparator
+	 */
+	public boolean union(AVL<E> other) throws NullPointerException, IllegalArgumentException {
+		return setOperation(SetOp.UNION, other);
+	}
+	
+	/**
+	 * Keeps only the elements of this AVL that are also in other
+	 * @param other AVL with the same ordering, left unchanged
+	 * @return whether this AVL has changed or not
+	 * @throws NullPointerException if other is null
+	 * @throws IllegalArgumentException if other is ordered by a different Comparator
+	 */
+	public boolean intersection(AVL<E> other) throws NullPointerException, IllegalArgumentException {
+		return setOperation(SetOp.INTERSECTION, other);
+	}
+	
+	/**
+	 * Removes every element of other from this AVL
+	 * @param other AVL with the same ordering, left unchanged
+	 * @return whether this AVL has changed or not
+	 * @throws NullPointerException if other is null
+	 * @throws IllegalArgumentException if other is ordered by a different Comparator
+	 */
+	public boolean difference(AVL<E> other) throws NullPointerException, IllegalArgumentException {
+		return setOperation(SetOp.DIFFERENCE, other);
+	}
+	
+	/**
+	 * Keeps the elements that are in exactly one of this AVL and other
+	 * @param other AVL with the same ordering, left unchanged
+	 * @return whether this AVL has changed or not
+	 * @throws NullPointerException if other is null
+	 * @throws IllegalArgumentException if other is ordered by a different Comparator
+	 */
+	public boolean symmetricDifference(AVL<E> other) throws NullPointerException, IllegalArgumentException {
+		return setOperation(SetOp.SYMMETRIC_DIFFERENCE, other);
+	}
+	
+	/**
+	 * Runs a set operation with the split/join algorithm of Blelloch, Ferizovic and Sun,
+	 * O(m log(n/m + 1)) work for sizes m <= n. The Nodes of this AVL are split and
+	 * joined in place. The Nodes of other are only read: its elements become new
+	 * Nodes, and a subtree of other that lands in the result whole is copied.
+	 * Large inputs run the two recursive halves in parallel on the common
+	 * fork-join pool, which is safe because the halves share no Nodes.
+	 * @param op operation
+	 * @param other AVL with the same ordering
+	 * @return whether this AVL has changed or not
+	 */
+	private boolean setOperation(SetOp op, AVL<E> other) throws NullPointerException, IllegalArgumentException {
+		if(other == null) {
+			throw new NullPointerException("Null parameter");
+		}
+		if(!Objects.equals(comparator, other.comparator)) {
+			throw new IllegalArgumentException("AVLs are ordered differently");
+		}
+		if(other == this) {
+			if(op == SetOp.UNION || op == SetOp.INTERSECTION || size == 0) {
+				return false;
+			}
+			clear();
+			return true;
+		}
+		int oldSize = size;
+		if(sizeOf(root) + sizeOf(other.root) >= PARALLEL_THRESHOLD) {
+			root = ForkJoinPool.commonPool().invoke(new SetTask(op, root, other.root));
+		}
+		else {
+			root = setOperation(op, root, other.root);
+		}
+		size = sizeOf(root);
+		modCount++;
+		return op == SetOp.SYMMETRIC_DIFFERENCE ? other.size != 0 : size != oldSize;
+	}
+	
+	/**
+	 * Task running a set operation over two subtrees in the fork-join pool
+	 */
+	private class SetTask extends RecursiveTask<Node<E>> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final SetOp op;
+		private final Node<E> mine;
+		private final Node<E> theirs;
+		
+		public SetTask(SetOp op, Node<E> mine, Node<E> theirs) {
+			this.op = op;
+			this.mine = mine;
+			this.theirs = theirs;
+		}
+
+		@Override
+		protected Node<E> compute() {
+			return setOperation(op, mine, theirs);
+		}
+	}
+	
+	/**
+	 * Recursively runs a set operation: splits mine by the root of theirs,
+	 * combines each side of the split with the same side of theirs, and
+	 * joins the two results
+	 * @param op operation
+	 * @param mine subtree of this AVL, taken apart
+	 * @param theirs subtree of the other AVL, only read
+	 * @return root of the resulting subtree
+	 */
+	private Node<E> setOperation(SetOp op, Node<E> mine, Node<E> theirs) {
+		if(mine == null) {
+			return op == SetOp.UNION || op == SetOp.SYMMETRIC_DIFFERENCE ? copy(theirs) : null;
+		}
+		if(theirs == null) {
+			return op == SetOp.INTERSECTION ? null : mine;
+		}
+		Split<E> split = split(mine, theirs.data);
+		Node<E> left;
+		Node<E> right;
+		if(sizeOf(mine) + sizeOf(theirs) >= PARALLEL_THRESHOLD) {
+			SetTask task = new SetTask(op, split.left, theirs.left);
+			task.fork();
+			right = setOperation(op, split.right, theirs.right);
+			left = task.join();
+		}
+		else {
+			left = setOperation(op, split.left, theirs.left);
+			right = setOperation(op, split.right, theirs.right);
+		}
+		switch(op) {
+			case UNION:
+				return join(left, split.found != null ? split.found : new Node<E>(theirs.data), right);
+			case INTERSECTION:
+				return split.found != null ? join(left, split.found, right) : join(left, right);
+			case DIFFERENCE:
+				return join(left, right);
+			default:
+				return split.found != null ? join(left, right) : join(left, new Node<E>(theirs.data), right);
+		}
+	}
+	
+	/**
+	 * Result of split: the subtrees of the elements below and above the key,
+	 * and the Node holding the key if there was one
+	 */
+	private static class Split <E>{
+		private Node<E> left;
+		private Node<E> found;
+		private Node<E> right;
+	}
+	
+	/**
+	 * Splits a subtree around e in O(log n) time, reusing its Nodes
+	 * @param node root of the subtree
+	 * @param e key to split around
+	 * @return the two halves and the Node holding e, if any
+	 */
+	private Split<E> split(Node<E> node, E e) {
+		if(node == null) {
+			return new Split<E>();
+		}
+		int cmp = compare(e, node.data);
+		if(cmp == 0) {
+			Split<E> split = new Split<E>();
+			split.left = node.left;
+			split.found = node;
+			split.right = node.right;
+			return split;
+		}
+		if(cmp < 0) {
+			Split<E> split = split(node.left, e);
+			split.right = join(split.right, node, node.right);
+			return split;
+		}
+		Split<E> split = split(node.right, e);
+		split.left = join(node.left, node, split.left);
+		return split;
+	}
+	
+	/**
+	 * Joins two subtrees and a middle Node, where every element of left is less
+	 * than middle and every element of right is greater. Walks down the spine
+	 * of the taller subtree to where the heights meet, links middle there and
+	 * rebalances on the way back up, O(difference in heights) time.
+	 * @param left subtree below middle
+	 * @param middle Node in between
+	 * @param right subtree above middle
+	 * @return root of the joined subtree
+	 */
+	private Node<E> join(Node<E> left, Node<E> middle, Node<E> right) {
+		if(heightOf(left) > heightOf(right) + 1) {
+			left.right = join(left.right, middle, right);
+			updateSizes(left);
+			return checkBalance(left);
+		}
+		if(heightOf(right) > heightOf(left) + 1) {
+			right.left = join(left, middle, right.left);
+			updateSizes(right);
+			return checkBalance(right);
+		}
+		middle.left = left;
+		middle.right = right;
+		updateSizes(middle);
+		return middle;
+	}
+	
+	/**
+	 * Joins two subtrees where every element of left is less than every element of right,
+	 * using the largest Node of left as the middle Node
+	 * @param left lower subtree
+	 * @param right upper subtree
+	 * @return root of the joined subtree
+	 */
+	private Node<E> join(Node<E> left, Node<E> right) {
+		if(left == null) {
+			return right;
+		}
+		Split<E> split = split(left, last(left).data);
+		return join(split.left, split.found, right);
+	}
+	
+	/**
+	 * Finds the largest Node of a subtree
+	 * @param node root of the subtree
+	 * @return largest Node
+	 */
+	private Node<E> last(Node<E> node) {
+		while(node.right != null) {
+			node = node.right;
+		}
+		return node;
+	}
+	
+	/**
+	 * Copies a subtree Node by Node, keeping its shape, heights and sizes
+	 * @param node root of the subtree
+	 * @return root of the copy
+	 */
+	private static <E> Node<E> copy(Node<E> node) {
+		if(node == null) {
+			return null;
+		}
+		Node<E> copy = new Node<E>(node.data);
+		copy.left = copy(node.left);
+		copy.right = copy(node.right);
+		copy.height = node.height;
+		copy.leftSize = node.leftSize;
+		copy.rightSize = node.rightSize;
+		return copy;
+	}
+	
+	/**
+	 * Recomputes leftSize, rightSize and height of a Node from its children
+	 * @param node Node being updated
+	 */
+	private void updateSizes(Node<E> node) {
+		node.leftSize = sizeOf(node.left);
+		node.rightSize = sizeOf(node.right);
+		updateHeight(node);
+	}
+	
+	/**
+	 * Returns the number of elements in a subtree
+	 * @param node root of the subtree
+	 * @return size of the subtree, 0 if null
+	 */
+	private static int sizeOf(Node<?> node) {
+		return node == null ? 0 : node.leftSize + node.rightSize + 1;
+	}
+	
+	/**
+	 * Returns the height of a subtree
+	 * @param node root of the subtree
+	 * @return height of the subtree, 0 if null
+	 */
+	private static int heightOf(Node<?> node) {
+		return node == null ? 0 : node.height;
+	}
+	
 	/**
 	 * 
 	 * Compares 2 AVL objects to see if they are equivalent
@@ -449,7 +1403,11 @@ public class AVL <E extends Comparable<E>> implements Iterable <E>{
 		}
 		
 		Node<E> current = root;
+		int steps = height();
 		while(current.left != null) {
+			if(--steps == 0) {
+				throw new ConcurrentModificationException();
+			}
 			current = current.left;
 		}
 		return current.data;
@@ -462,47 +1420,14 @@ public class AVL <E extends Comparable<E>> implements Iterable <E>{
 	 * @param e element
 	 * @return largest element less than e
 	 */
-	public E floor(E e) {
-		
-		if(e == null) {
-			throw new NullPointerException("Null argument");
-		}
-		else if(e.getClass() != root.data.getClass()) {
-			throw new ClassCastException("Wrong object type");
-		}
-		Node<E> current = root;
-
-		return floor(current, e);
-	}
-	
-	/**
-	 * Helper method to get the floor of the BST
-	 * @param root
-	 * @param e element
-	 * @return largest element less than e
-	 */
-	private E floor(Node<E> root, E e) {
-		
-		if(root == null) {
-			return null;
-		}
-		if(((Comparable<E>) root.data).compareTo((E)e) > 0) {
-			return (E) floor(root.left, e);
-		}
-		
-		E f = (E) floor(root.right, e);
-		
-		if(f != null && ((Comparable<E>) f).compareTo((E)e) <= 0) {
-			return f;
-		}
-		else {
-			return (E)root.data;
-		}	
-		
+	public E floor(E e) throws NullPointerException, ClassCastException {
+		return nearest(e, true, true);
 	}
 	
 	/**
 	 * Gets the value at the given index (assuming inOrder traversal)
+	 * Descends once, moving right past the left subtree and the Node
+	 * whenever the index is beyond them
 	 * @param index
 	 * @return value at given index
 	 * @throws IndexOutOfBoundsException
@@ -511,102 +1436,66 @@ public class AVL <E extends Comparable<E>> implements Iterable <E>{
 		if(index < 0 || index >= size()) {
 			throw new IndexOutOfBoundsException("Index out of bounds");
 		}
-		return getHelp(root, index);
-	}
-	
-	/**
-	 * Helper method 
-	 * @param root
-	 * @param index
-	 * @return value at given index
-	 */
-	private E getHelp(Node<E> root, int index) {
-		
-		//avoid NullPointerException
-		if(root == null) {
-			return null;
-		}
-		
-		if(root.leftSize - index == 0) {
-			return (E)root.data;
-		}
-
-		//move right and subtract all the elements (size) on the left tree and root from the index
-		else if(index - root.leftSize > 0) {
-			return (E) getHelp(root.right, index - root.leftSize - 1);
-		}
-		//move left
-		else {
-			return (E) getHelp(root.left, index);
+		Node<E> current = root;
+		int steps = height();
+		int depth = 0;
+		while(current != null) {
+			if(steps-- == 0) {
+				throw new ConcurrentModificationException();
+			}
+			depth++;
+			if(index < current.leftSize) {
+				current = current.left;
+			}
+			else if(index > current.leftSize) {
+				index -= current.leftSize + 1;
+				current = current.right;
+			}
+			else {
+				searched(depth);
+				return current.data;
+			}
 		}
-
-
+		//sizes and structure disagree
+		throw new ConcurrentModificationException();
 	}
 	
 	/**
 	 * Returns an ArrayList of generic type E containing all the elements
-	 * within the given range [fromElement, toElement], inclusive
+	 * within the given range [fromElement, toElement], inclusive.
+	 * The list is sized with countRange and filled by a range iterator.
 	 * @param fromElement lower bound
 	 * @param toElement upper bound
-	 * @return ArrayList of type E containing elements within the range
+	 * @return ArrayList of type E containing elements within the range, empty if there are none
 	 * @throws NullPointerException
 	 * @throws IllegalArgumentException
 	 */
 	public ArrayList <E> getRange(E fromElement, E toElement) throws NullPointerException, IllegalArgumentException {
-		
-		if(fromElement == null || toElement == null) {
-			throw new NullPointerException("Parameters can not be null");
-		}
-		if(fromElement.compareTo(toElement) > 0) {
-			throw new IllegalArgumentException("fromElement can not be greater than toElement");
+		TreeOperationEvent event = new TreeOperationEvent();
+		event.begin();
+		ArrayList<E> list = new ArrayList<E>(countRange(fromElement, toElement));
+		Iterator<E> itr = rangeIterator(fromElement, toElement);
+		while(itr.hasNext()) {
+			list.add(itr.next());
 		}
-		ArrayList<E> list = new ArrayList<E>();
-		
-		return rangeTraverse(fromElement, toElement, root, list);
-		
+		commit(event, "getRange", list.size());
+		return list;
 	}
 	
 	/**
-	 * helper function for getting the ArrayList 
+	 * Checks the bounds of a range
 	 * @param fromElement lower bound
 	 * @param toElement upper bound
-	 * @param root
-	 * @param list being added to
-	 * @return ArrayList of type E containing elements within the range
+	 * @throws NullPointerException if either bound is null
+	 * @throws IllegalArgumentException if fromElement is greater than toElement
 	 */
-	private ArrayList<E> rangeTraverse(E fromElement, E toElement, Node<E> root, ArrayList<E> list) {
-		
-		if(root == null) {
-			return null;
-		}
-		
-		//within the range
-		if(((Comparable<E>) root.data).compareTo((E)fromElement) >= 0 &&
-				((Comparable<E>) root.data).compareTo(toElement) <= 0) {
-			
-			rangeTraverse(fromElement, toElement, root.left, list);
-			
-			//add to ArrayList
-			list.add(root.data);
-
-			rangeTraverse(fromElement, toElement, root.right, list);
+	private void checkRange(E fromElement, E toElement) throws NullPointerException, IllegalArgumentException {
+		if(fromElement == null || toElement == null) {
+			throw new NullPointerException("Parameters can not be null");
 		}
-		
-		//if not within the range
-		else {	
-			//if root data is less than fromElement then recur right	
-			if(((Comparable<E>) root.data).compareTo(fromElement) < 0) {
-				rangeTraverse(fromElement, toElement, root.right, list);
-			}
-			
-		
-			//if root data is more than toElement then recur left
-			if(((Comparable<E>) root.data).compareTo(toElement) > 0) {
-				rangeTraverse(fromElement, toElement, root.left, list);
-			}
+		if(compare(fromElement, toElement) > 0) {
+			throw new IllegalArgumentException("fromElement can not be greater than toElement");
 		}
-		
-		return list;
 	}
 	
 	/**
@@ -651,6 +1540,9 @@ public class AVL <E extends Comparable<E>> implements Iterable <E>{
 		A.left = B.right;
 		B.right = A;
 		
+		A.leftSize = B.rightSize;
+		B.rightSize = A.leftSize + A.rightSize + 1;
+		
 		updateHeight(A);
 		updateHeight(B);
 		
@@ -669,6 +1561,9 @@ public class AVL <E extends Comparable<E>> implements Iterable <E>{
 		A.right = B.left;
 		B.left = A;
 		
+		A.rightSize = B.leftSize;
+		B.leftSize = A.leftSize + A.rightSize + 1;
+		
 		updateHeight(A);
 		updateHeight(B);
 		
@@ -689,6 +1584,11 @@ public class AVL <E extends Comparable<E>> implements Iterable <E>{
 		C.left = B;
 		C.right = A;
 		
+		A.leftSize = C.rightSize;
+		B.rightSize = C.leftSize;
+		C.leftSize = B.leftSize + B.rightSize + 1;
+		C.rightSize = A.leftSize + A.rightSize + 1;
+		
 		updateHeight(A);
 		updateHeight(B);
 		updateHeight(C);
@@ -710,6 +1610,11 @@ public class AVL <E extends Comparable<E>> implements Iterable <E>{
 		C.right = B;
 		C.left = A;
 		
+		A.rightSize = C.leftSize;
+		B.leftSize = C.rightSize;
+		C.leftSize = A.leftSize + A.rightSize + 1;
+		C.rightSize = B.leftSize + B.rightSize + 1;
+		
 		updateHeight(A);
 		updateHeight(B);
 		updateHeight(C);
@@ -755,43 +1660,7 @@ public class AVL <E extends Comparable<E>> implements Iterable <E>{
 	 * @return E value largest value greater than e
 	 */
 	public E higher(E e) throws ClassCastException, NullPointerException {
-
-	if(e == null) {
-		throw new NullPointerException("Null argument");
-	}
-	else if(e.getClass() != root.data.getClass()) {
-		throw new ClassCastException("Wrong object type");
-	}
-	Node<E> current = root;
-
-	return higherHelper(current, e);
-
-	}
-	
-	/**
-	 * Recursively returns the smallest value in AVL greater than given value
-	 * @param root
-	 * @param e value
-	 * @return proper value, or null if it doesn't exist
-	 */
-	@SuppressWarnings("unchecked")
-	private E higherHelper(Node<?> root, E e) {
-		
-		if(root == null) {
-			return null;
-		}
-		if(((Comparable<E>) root.data).compareTo(e) <= 0) {
-			return higherHelper(root.right, e);
-		}
-		
-		E higher = higherHelper(root.left, e);
-		
-		if(higher != null && ((Comparable<E>) higher).compareTo((E)e) > 0) {
-			return higher;
-		}
-		else {
-			return (E)root.data;
-		}	
+		return nearest(e, false, false);
 	}
 	
 	/**
@@ -814,7 +1683,11 @@ public class AVL <E extends Comparable<E>> implements Iterable <E>{
 		}
 		
 		Node<E> current = root;
+		int steps = height();
 		while(current.right != null) { //move right until reaching right leaf
+			if(--steps == 0) {
+				throw new ConcurrentModificationException();
+			}
 			current = current.right;
 		}
 		return (E)current.data;
@@ -828,40 +1701,7 @@ public class AVL <E extends Comparable<E>> implements Iterable <E>{
 	 * @return E value largest value less than e
 	 */
 	public E lower(E e) throws ClassCastException, NullPointerException{
-		if(e == null) {
-			throw new NullPointerException("Null argument");
-		}
-		else if(e.getClass() != root.data.getClass()) {
-			throw new ClassCastException("Wrong object type");
-		}
-		return lowerHelper(root, e);
-	}
-	
-	/**
-	 * Recursively returns the largest value in AVL lower than given value
-	 * @param root
-	 * @param e value
-	 * @return proper value, or null if it doesn't exist
-	 */
-	@SuppressWarnings("unchecked")
-	private E lowerHelper(Node<?> root, E e) {
-		
-		if(root == null) {
-			return null;
-		}
-		if(((Comparable<E>) root.data).compareTo(e) >= 0) {
-			return lowerHelper(root.left, e);
-		}
-		
-		E lower = lowerHelper(root.right, e);
-		
-		if(lower != null && ((Comparable<E>) lower).compareTo(e) < 0) {
-			return lower;
-		}
-		else {
-			return (E)root.data;
-		}	
-		
+		return nearest(e, true, false);
 	}
 	
 	/**
@@ -871,7 +1711,7 @@ public class AVL <E extends Comparable<E>> implements Iterable <E>{
 	 */
 	@Override
 	public Iterator<E> iterator() {
-		return new Itr("in");
+		return new Itr(Order.IN);
 	}
 	
 	/**
@@ -880,7 +1720,7 @@ public class AVL <E extends Comparable<E>> implements Iterable <E>{
 	 * @return preOrder Iterator
 	 */
 	public Iterator<E> preorderIterator() {
-		return new Itr("pre");
+		return new Itr(Order.PRE);
 		}
 	
 	/**
@@ -889,112 +1729,256 @@ public class AVL <E extends Comparable<E>> implements Iterable <E>{
 	 */
 	public Iterator<E> postorderIterator() {
 
-		return new Itr("post");
+		return new Itr(Order.POST);
+		}
+	
+	/**
+	 * Returns a Spliterator over the AVL in order that splits in half by index,
+	 * so parallel streams divide the work evenly across the fork-join pool
+	 * @return SIZED, SUBSIZED, ORDERED, SORTED, DISTINCT and NONNULL Spliterator
+	 */
+	@Override
+	public Spliterator<E> spliterator() {
+		return new Splitr(0, size, modCount);
+	}
+	
+	/**
+	 * Returns a sequential Stream of the elements in order
+	 * @return Stream of the elements
+	 */
+	public Stream<E> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+	
+	/**
+	 * Returns a parallel Stream of the elements in order
+	 * @return parallel Stream of the elements
+	 */
+	public Stream<E> parallelStream() {
+		return StreamSupport.stream(spliterator(), true);
+	}
+	
+	/**
+	 * Returns the lower median, the element at index (size - 1) / 2
+	 * @return median element
+	 * @throws NoSuchElementException if empty
+	 */
+	public E median() throws NoSuchElementException {
+		return percentile(50);
+	}
+	
+	/**
+	 * Returns the p-th percentile by the nearest-rank method: the smallest
+	 * element with at least p percent of the elements less than or equal to it.
+	 * Found with get(int) in O(log n) time.
+	 * @param p percentile, from 0 to 100
+	 * @return element at the percentile
+	 * @throws IllegalArgumentException if p is not within [0, 100]
+	 * @throws NoSuchElementException if empty
+	 */
+	public E percentile(double p) throws IllegalArgumentException, NoSuchElementException {
+		if(!(p >= 0 && p <= 100)) {
+			throw new IllegalArgumentException("Percentile must be within [0, 100]");
+		}
+		if(size == 0) {
+			throw new NoSuchElementException("Set is empty");
+		}
+		int rank = (int) Math.ceil(p / 100 * size);
+		return get(Math.max(rank, 1) - 1);
+	}
+	
+	/**
+	 * Returns the index of e in order, the inverse of get(int), in O(log n) time.
+	 * When e is not in the AVL the result follows Arrays.binarySearch.
+	 * @param e element
+	 * @return index of e, or (-(insertion point) - 1) if not found
+	 * @throws NullPointerException when element is null
+	 */
+	public int rank(E e) throws NullPointerException, ClassCastException {
+		if(e == null) {
+			throw new NullPointerException("Null argument");
+		}
+		int count = 0;
+		Node<E> current = root;
+		while(current != null) {
+			int cmp = compare(current.data, e);
+			if(cmp == 0) {
+				return count + current.leftSize;
+			}
+			if(cmp < 0) {
+				count += current.leftSize + 1;
+				current = current.right;
+			}
+			else {
+				current = current.left;
+			}
 		}
+		return -count - 1;
+	}
+	
+	/**
+	 * Returns a lazy iterator over the elements within the given range
+	 * [fromElement, toElement], inclusive, in order
+	 * @param fromElement lower bound
+	 * @param toElement upper bound
+	 * @return Iterator over the range
+	 * @throws NullPointerException
+	 * @throws IllegalArgumentException
+	 */
+	public Iterator<E> rangeIterator(E fromElement, E toElement) throws NullPointerException, IllegalArgumentException {
+		return rangeIterator(fromElement, true, toElement, true, false);
+	}
+	
+	/**
+	 * Returns a lazy iterator over the elements between fromElement and toElement.
+	 * Seeks to the first element in O(log n) and only walks further as next()
+	 * is called, so wide ranges are never copied.
+	 * @param fromElement lower bound
+	 * @param fromInclusive whether fromElement itself is returned
+	 * @param toElement upper bound
+	 * @param toInclusive whether toElement itself is returned
+	 * @param descending whether to go from toElement down to fromElement
+	 * @return Iterator over the range
+	 * @throws NullPointerException
+	 * @throws IllegalArgumentException
+	 */
+	public Iterator<E> rangeIterator(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive,
+			boolean descending) throws NullPointerException, IllegalArgumentException {
+		checkRange(fromElement, toElement);
+		return new RangeItr(fromElement, fromInclusive, toElement, toInclusive, descending);
+	}
+	
+	/**
+	 * Returns a sequential Stream of the elements within the given range
+	 * [fromElement, toElement], inclusive, in order
+	 * @param fromElement lower bound
+	 * @param toElement upper bound
+	 * @return Stream over the range
+	 * @throws NullPointerException
+	 * @throws IllegalArgumentException
+	 */
+	public Stream<E> rangeStream(E fromElement, E toElement) throws NullPointerException, IllegalArgumentException {
+		return rangeStream(fromElement, true, toElement, true, false);
+	}
 	
-	//boolean to see whether or not the element is already in the AVL or not
-	private boolean found;
+	/**
+	 * Returns a sequential Stream of the elements between fromElement and toElement.
+	 * Ascending streams cover the in order indices of the range found with
+	 * countRange, so they can also be split for parallel use. Descending
+	 * streams are backed by rangeIterator.
+	 * @param fromElement lower bound
+	 * @param fromInclusive whether fromElement itself is returned
+	 * @param toElement upper bound
+	 * @param toInclusive whether toElement itself is returned
+	 * @param descending whether to go from toElement down to fromElement
+	 * @return Stream over the range
+	 * @throws NullPointerException
+	 * @throws IllegalArgumentException
+	 */
+	public Stream<E> rangeStream(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive,
+			boolean descending) throws NullPointerException, IllegalArgumentException {
+		int count = countRange(fromElement, fromInclusive, toElement, toInclusive);
+		if(!descending) {
+			int low = countBelow(fromElement, !fromInclusive);
+			return StreamSupport.stream(new Splitr(low, low + count, modCount), false);
+		}
+		Iterator<E> itr = rangeIterator(fromElement, fromInclusive, toElement, toInclusive, true);
+		return StreamSupport.stream(Spliterators.spliterator(itr, count,
+				Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+	}
 	
 	/**
 	 * function removes given element inside a AVL, returns true. Returns false
 	 * if element was not found.
-	 * @param val 
+	 * Commits a TreeOperationEvent if the remove runs past its threshold.
+	 * @param o element being removed
 	 * @return whether element has been found and removed or not
 	 */
 	public boolean remove(Object o) throws ClassCastException, NullPointerException {
+		TreeOperationEvent event = new TreeOperationEvent();
+		event.begin();
+		int oldSize = size;
+		int visited = delete(o);
+		commit(event, "remove", visited);
+		return size != oldSize;
+	}
+	
+	/**
+	 * Removes the given element.
+	 * Descends once with a single comparison per level. A Node with two children
+	 * takes the value of its predecessor, and the predecessor's Node is unlinked
+	 * instead, then the path is walked back up to rebalance.
+	 * @param o element being removed
+	 * @return number of Nodes visited, size shrinks by one if element has been found and removed
+	 */
+	@SuppressWarnings("unchecked")
+	private int delete(Object o) throws ClassCastException, NullPointerException {
 		if(o == null) {
 			throw new NullPointerException("Specified element is null");
 		}
-        found = false;
-        root = recRemove(o, root);
-        if(found) {
-        	size--;
-        }
-        return found;
-    }
-
-	/**
-	 * Finds given node containing the target value
-	 * @param target value to find in the AVL
-	 * @param node that is being checked for target value
-	 * @return entire modified Node, or the root, that has either been modified or not
-	 */
-    @SuppressWarnings("unchecked")
-	private Node<E> recRemove(Object target, Node<E> node)
-    {
-        if (node == null)
-            found = false;
-        else if (((Comparable<E>)target).compareTo(node.data) < 0) {
-            node.left = recRemove(target, node.left);
-            updateHeight(node.left);
-            
-            node.left = (Node<E>) checkBalance(node.left);
-            
-            //if we found the node AKA are removing something
-            if(found) {
-            	node.leftSize--;
-            }
-        }
-        else if (((Comparable<E>) target).compareTo((E) node.data) > 0) {
-            node.right = recRemove(target, node.right );
-            updateHeight(node.right);
-            
-            node.right = (Node<E>) checkBalance(node.right);
-            
-            
-            if(found) {
-            	node.rightSize--;
-            }
-        }
-        else {
-        	node.leftSize--;
-            node = removeNode(node);
-            found = true;
-        }
-
-        updateHeight(node);
-        
-        node = (Node<E>) checkBalance(node);
-        
-        return node;
-    }
-
-    /**
-     * Removes the node with given target value from the AVL
-     * @param node
-     * @return updated branch after given node has been removed
-     */
-	private Node<E> removeNode(Node<E> node) {
-        E data;
-
-        if (node.left == null)
-            return node.right ;
-        else if (node.right  == null)
-            return node.left;
-
-        else {
-            data = (E) getPredecessor(node.left);
-            node.data = data;
-            node.left = recRemove(data, node.left);
-            return node;
-        }
-    }
-
-    /**
-     * Finds the predecessor, or the largest value on the left branch of the 
-     * root to replace the node that is being replaced
-     * @param subtree
-     * @return element E that is the predecessor
-     */
-	private E getPredecessor(Node<E> subtree)
-    {
-        Node<E> temp = subtree;
-        while (temp.right  != null)
-            temp = temp.right;
-        return (E) temp.data;
-    }
+		if(root == null) {
+			searched(0);
+			return 0;
+		}
+		
+		Node<E>[] path = newPath();
+		int depth = 0;
+		Node<E> current = root;
+		while(current != null) {
+			int cmp = compare((E) o, current.data);
+			if(cmp == 0) {
+				break;
+			}
+			path[depth++] = current;
+			current = cmp < 0 ? current.left : current.right;
+		}
+		//element not found
+		if(current == null) {
+			searched(depth);
+			return depth;
+		}
+		//depth goes on to count the path to the predecessor
+		int visited = depth + 1;
+		searched(visited);
+		
+		//replace the data with the predecessor, the largest value on the left branch
+		if(current.left != null && current.right != null) {
+			if(metrics != null) {
+				metrics.removedPredecessor();
+			}
+			Node<E> target = current;
+			path[depth++] = target;
+			current = target.left;
+			while(current.right != null) {
+				path[depth++] = current;
+				current = current.right;
+			}
+			target.data = current.data;
+		}
+		
+		//current now has at most one child, which takes its place
+		Node<E> child = current.left != null ? current.left : current.right;
+		if(depth == 0) {
+			root = child;
+		}
+		else {
+			Node<E> parent = path[depth - 1];
+			if(parent.left == current) {
+				parent.left = child;
+				parent.leftSize--;
+			}
+			else {
+				parent.right = child;
+				parent.rightSize--;
+			}
+			retrace(path, depth, -1);
+		}
+		size--;
+		modCount++;
+		return visited;
+	}
 	
-	/**
+		/**
 	 * Returns the size of the AVL, or how many elements are in it
 	 * @return size of the AVL
 	 */
@@ -1,10 +1,16 @@
 package project6;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * This class is a generic Binary Search Tree class. 
@@ -17,16 +23,52 @@ public class BST <E extends Comparable<E>> implements Iterable <E>{
 	
 	private Node<E> root;
 	private int size;
+	//number of structural modifications, used by iterators to fail fast
+	private int modCount;
+	//weight balance of scapegoat mode, 0 when the BST never rebalances itself
+	private final double alpha;
+	//largest size since the whole tree was last rebuilt
+	private int maxSize;
+	//floor of log(size) in base 1/alpha, valid while boundFrom <= size < boundTo
+	private int depthBound;
+	private long boundFrom;
+	private long boundTo;
+	private int rebuildCount;
+	//null while metrics are off
+	private TreeMetrics metrics;
 	
 	public BST() {
 		root = null;
 		size = 0;
+		alpha = 0;
+	}
+	
+	/**
+	 * Creates a BST in scapegoat mode. add and remove stay as cheap as without
+	 * it, but when an add lands deeper than log(size) in base 1/alpha, the
+	 * subtree at the lowest ancestor with a child holding more than alpha of
+	 * its elements is rebuilt into perfect balance. When removes shrink the BST
+	 * below alpha times its largest size, the whole tree is rebuilt. Lookups
+	 * take O(log n) and updates O(log n) amortized time.
+	 * @param alpha weight balance, lower values rebuild more often and keep the tree shallower
+	 * @throws IllegalArgumentException unless 0.5 < alpha < 1
+	 */
+	public BST(double alpha) throws IllegalArgumentException {
+		if(!(alpha > 0.5 && alpha < 1)) {
+			throw new IllegalArgumentException("alpha must be between 0.5 and 1");
+		}
+		root = null;
+		size = 0;
+		this.alpha = alpha;
+		boundFrom = 1;
+		boundTo = power(1);
 	}
 	
 	public BST(E[] collection) throws IllegalArgumentException {
 		if(collection == null) {
 			throw new IllegalArgumentException("Null argument not allowed");
 		}
+		alpha = 0;
 		Arrays.sort(collection);
 
 		adder(collection, 0, collection.length-1);
@@ -52,12 +94,55 @@ public class BST <E extends Comparable<E>> implements Iterable <E>{
 		}
 	}
 	
+	/**
+	 * Compares two elements by their natural ordering, counting the
+	 * comparison if metrics are on
+	 * @param a first element
+	 * @param b second element
+	 * @return negative, zero or positive as a is less than, equal to or greater than b
+	 */
+	private int compare(E a, E b) {
+		if(metrics != null) {
+			metrics.compared();
+		}
+		return a.compareTo(b);
+	}
+	
+	/**
+	 * Starts recording comparisons, searches and predecessor removals into
+	 * the given TreeMetrics, or stops recording. A BST never rotates, so
+	 * no rotations are recorded.
+	 * @param metrics where to record, null to turn metrics off
+	 */
+	public void setMetrics(TreeMetrics metrics) {
+		this.metrics = metrics;
+	}
+	
+	/**
+	 * Returns the TreeMetrics this BST records into
+	 * @return metrics, or null if they are off
+	 */
+	public TreeMetrics metrics() {
+		return metrics;
+	}
+	
+	/**
+	 * Records a search in the metrics if they are on
+	 * @param depth number of Nodes the search visited
+	 */
+	private void searched(int depth) {
+		if(metrics != null) {
+			metrics.searched(depth);
+		}
+	}
+	
 	/**
 	 * This class stores a private node inside the BST class.
 	 * The class has data fields for a Left node, Right node.
 	 * Stores height for making returning height O(1) time.
 	 * Stores left and right height of node to make get(index)
 	 * function run in efficient time.
+	 * Stores its parent so updates can walk back up without recursion.
 	 * @author Alan Chen
 	 *
 	 * @param <E> generic element
@@ -67,6 +152,7 @@ public class BST <E extends Comparable<E>> implements Iterable <E>{
 		private E data;
 		private Node<E> left;
 		private Node<E> right;
+		private Node<E> parent;
 		private int height;
 		private int leftSize;
 		private int rightSize;
@@ -79,93 +165,491 @@ public class BST <E extends Comparable<E>> implements Iterable <E>{
 		}
 	}
 
+	/**
+	 * Order in which an Itr visits the Nodes of the BST
+	 */
+	private enum Order { IN, PRE, POST }
+
 	/**
 	 * Iterator class that can iterate through the BST
-	 * The constructor takes in a parameter that acts as a keyword
-	 * so the proper iterator is returned.
-	 * @author Alan Chen
+	 * The constructor takes in the traversal order so the proper iterator is returned.
+	 * Walks the tree lazily with an explicit stack that never holds more than
+	 * height() Nodes, so creating the iterator is O(height) rather than O(n).
+	 * Fails fast with a ConcurrentModificationException if the BST is modified
+	 * by anything other than this iterator's remove().
 	 */
 	private class Itr implements Iterator<E>{
 		
+		private final Order order;
+		private final ArrayDeque<Node<E>> stack = new ArrayDeque<Node<E>>();
+		//rest of a preOrder or postOrder walk, copied out by the first remove()
+		private ArrayDeque<E> rest;
+		private E lastReturned;
+		private int expectedModCount = modCount;
 		
-		//we can create an iterator with String keyword as argument
-		
-		private ArrayList<Object> collection = new ArrayList<Object>(size);
-		private int count = 0;
-		public Itr(String keyword) {
-			collection = traverse(root, collection, keyword);
+		public Itr(Order order) {
+			this.order = order;
+			if(root == null) {
+				return;
+			}
+			TreeOperationEvent event = new TreeOperationEvent();
+			event.begin();
+			if(order == Order.PRE) {
+				stack.push(root);
+			}
+			else if(order == Order.IN) {
+				pushLeft(root);
+			}
+			else {
+				pushLeftmostLeaf(root);
+			}
+			commit(event, "iterator", stack.size());
 		}
 
 		@Override
 		public boolean hasNext() {
-			return count < collection.size();
+			return rest != null ? !rest.isEmpty() : !stack.isEmpty();
 		}
 
-		@SuppressWarnings("unchecked")
 		@Override
-		public E next() throws NoSuchElementException{
+		public E next() throws NoSuchElementException, ConcurrentModificationException{
+			if(modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
 			if(!hasNext()) {
 				throw new NoSuchElementException("No next element");
 			}
-			return (E)collection.get(count++);
+			if(rest != null) {
+				lastReturned = rest.poll();
+				return lastReturned;
+			}
+			Node<E> node = advance();
+			lastReturned = node.data;
+			return node.data;
 		}
 		
 		/**
-		 * unimplemented method
+		 * Pops the next Node of the walk and pushes the Nodes that follow it
+		 * @return next Node in the iterator's order
 		 */
-		public void remove() throws UnsupportedOperationException {}
-		
-		/**
-		 * Traversal method that puts the elements into ArrayList in proper order
-		 * @param root
-		 * @param arr collection being added to
-		 * @param order keyword of which traversal type
-		 * @return
-		 */
-		private ArrayList<Object> traverse(Node<E> root, ArrayList<Object> arr, String order) {
+		private Node<E> advance() {
+			Node<E> node = stack.pop();
 			
 			//inOrder traversal
-			if(order.equals("in") && root != null) {
-				traverse(root.left, arr, order);
-				arr.add(root.data);
-				traverse(root.right, arr, order);
+			if(order == Order.IN) {
+				pushLeft(node.right);
 			}
-			
 			//preOrder traversal
-			if(order.equals("pre") && root != null) {
-				arr.add(root.data);
-				traverse(root.left, arr, order);
-				traverse(root.right, arr, order);
+			else if(order == Order.PRE) {
+				if(node.right != null) {
+					stack.push(node.right);
+				}
+				if(node.left != null) {
+					stack.push(node.left);
+				}
+			}
+			//postOrder traversal, node was a left child so its sibling subtree comes next
+			else if(!stack.isEmpty() && stack.peek().left == node && stack.peek().right != null) {
+				pushLeftmostLeaf(stack.peek().right);
 			}
+			return node;
+		}
+		
+		/**
+		 * Removes the last element returned by next() from the BST.
+		 * Removing can restructure the tree. The inOrder iterator then seeks back
+		 * to the successor of the removed element in O(height) time, since the
+		 * elements it has left are exactly the greater ones. The preOrder and
+		 * postOrder walks have no such bound, and a rotation or a predecessor
+		 * taking the removed element's place moves Nodes between the subtrees on
+		 * the stack, so their first remove() copies the rest of the walk out of
+		 * the tree in O(n) and the iterator goes on from the copy.
+		 * @throws IllegalStateException if next() has not been called since the last remove()
+		 */
+		@Override
+		public void remove() throws IllegalStateException {
+			if(lastReturned == null) {
+				throw new IllegalStateException("next has not been called");
+			}
+			if(modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if(order != Order.IN && rest == null) {
+				rest = new ArrayDeque<E>();
+				while(!stack.isEmpty()) {
+					rest.add(advance().data);
+				}
+			}
+			BST.this.remove(lastReturned);
+			expectedModCount = modCount;
 			
-			//postOrder traversal
-			if(order.equals("post") && root != null) {
-				traverse(root.left, arr, order);
-				traverse(root.right, arr, order);
-				arr.add(root.data);
+			if(order == Order.IN) {
+				//the remaining elements are the ones greater than the removed element
+				stack.clear();
+				Node<E> current = root;
+				while(current != null) {
+					if(compare(current.data, lastReturned) > 0) {
+						stack.push(current);
+						current = current.left;
+					}
+					else {
+						current = current.right;
+					}
+				}
+			}
+			lastReturned = null;
+		}
+		
+		/**
+		 * Pushes the given Node and its chain of left children
+		 * @param node top of the chain
+		 */
+		private void pushLeft(Node<E> node) {
+			while(node != null) {
+				stack.push(node);
+				node = node.left;
+			}
+		}
+		
+		/**
+		 * Pushes the path from the given Node down to the first Node visited
+		 * in postOrder, preferring left children over right children
+		 * @param node top of the path
+		 */
+		private void pushLeftmostLeaf(Node<E> node) {
+			while(node != null) {
+				stack.push(node);
+				node = node.left != null ? node.left : node.right;
 			}
-			return arr;			
 		}
 	}
 	
 	/**
-	 * Updates the root with the added Node with given element
+	 * Lazy iterator over the elements between two bounds, ascending or descending.
+	 * Seeks to the first element in O(height), then walks on demand with an
+	 * explicit stack of at most height() Nodes. Fails fast like Itr.
+	 */
+	private class RangeItr implements Iterator<E>{
+		
+		private final E fromElement;
+		private final boolean fromInclusive;
+		private final E toElement;
+		private final boolean toInclusive;
+		private final boolean descending;
+		private final ArrayDeque<Node<E>> stack = new ArrayDeque<Node<E>>();
+		private E lastReturned;
+		private int expectedModCount = modCount;
+		
+		public RangeItr(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive, boolean descending) {
+			this.fromElement = fromElement;
+			this.fromInclusive = fromInclusive;
+			this.toElement = toElement;
+			this.toInclusive = toInclusive;
+			this.descending = descending;
+			TreeOperationEvent event = new TreeOperationEvent();
+			event.begin();
+			if(descending) {
+				seek(toElement, toInclusive);
+			}
+			else {
+				seek(fromElement, fromInclusive);
+			}
+			commit(event, "rangeIterator", stack.size());
+		}
+		
+		/**
+		 * Pushes every Node on the search path for bound that comes at or after
+		 * bound in the direction of iteration, so the top of the stack is the
+		 * first element to return
+		 * @param bound where iteration starts
+		 * @param inclusive whether bound itself is returned
+		 */
+		private void seek(E bound, boolean inclusive) {
+			stack.clear();
+			Node<E> current = root;
+			while(current != null) {
+				int cmp = descending ? compare(bound, current.data) : compare(current.data, bound);
+				if(cmp > 0 || (cmp == 0 && inclusive)) {
+					stack.push(current);
+					current = descending ? current.right : current.left;
+				}
+				else {
+					current = descending ? current.left : current.right;
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			if(stack.isEmpty()) {
+				return false;
+			}
+			//stop at the far bound
+			int cmp = descending ? compare(fromElement, stack.peek().data) : compare(stack.peek().data, toElement);
+			return cmp < 0 || (cmp == 0 && (descending ? fromInclusive : toInclusive));
+		}
+
+		@Override
+		public E next() throws NoSuchElementException, ConcurrentModificationException{
+			if(modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if(!hasNext()) {
+				throw new NoSuchElementException("No next element");
+			}
+			Node<E> node = stack.pop();
+			Node<E> current = descending ? node.left : node.right;
+			while(current != null) {
+				stack.push(current);
+				current = descending ? current.right : current.left;
+			}
+			lastReturned = node.data;
+			return node.data;
+		}
+		
+		/**
+		 * Removes the last element returned by next() from the BST, then seeks
+		 * past it again in O(height) time
+		 * @throws IllegalStateException if next() has not been called since the last remove()
+		 */
+		@Override
+		public void remove() throws IllegalStateException {
+			if(lastReturned == null) {
+				throw new IllegalStateException("next has not been called");
+			}
+			if(modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			BST.this.remove(lastReturned);
+			expectedModCount = modCount;
+			seek(lastReturned, false);
+			lastReturned = null;
+		}
+	}
+	
+	/**
+	 * Adds the given element if it is not in the BST yet.
+	 * Commits a TreeOperationEvent if the add runs past its threshold.
 	 * @param e element being added to BST
 	 * @return whether element has been added or not
 	 * @throws NullPointerException when element is null
 	 */
-	public boolean add ( E e ) throws NullPointerException{
+	public boolean add(E e) throws NullPointerException {
+		TreeOperationEvent event = new TreeOperationEvent();
+		event.begin();
+		int oldSize = size;
+		int visited = insert(e);
+		commit(event, "add", visited);
+		return size != oldSize;
+	}
+	
+	/**
+	 * Fills in and commits an operation event if it ran past its threshold
+	 * @param event event begun when the operation started
+	 * @param operation name of the operation
+	 * @param visited number of Nodes the operation visited
+	 */
+	private void commit(TreeOperationEvent event, String operation, long visited) {
+		if(event.shouldCommit()) {
+			event.structure = "BST";
+			event.operation = operation;
+			event.size = size;
+			event.visited = visited;
+			event.commit();
+		}
+	}
+	
+	/**
+	 * Adds the Node with given element.
+	 * Descends once without recursion, then follows the parent pointers
+	 * back up to update sizes and heights, so a degenerate tree costs
+	 * O(height) time but no stack. In scapegoat mode a Node added too deep
+	 * makes its scapegoat's subtree be rebuilt.
+	 * @param e element being added to BST
+	 * @return number of Nodes visited, size grows by one if element has been added
+	 * @throws NullPointerException when element is null
+	 */
+	private int insert(E e) throws NullPointerException{
 		if(e == null) {
 			throw new NullPointerException ("element is null");
 		}
-        int oldSize = size();
-        root  =  add ( e, root ); //replaces the root with completely updated tree
-
-        //nothing was added
-        if (oldSize == size())
-            return false;
-        return true;
-    }
+		if(root == null) {
+			searched(0);
+			root = new Node<E>(e);
+			size++;
+			modCount++;
+			return 0;
+		}
+		Node<E> parent = root;
+		int depth = 1;
+		int cmp;
+		while(true) {
+			cmp = compare(e, parent.data);
+			if(cmp == 0) {
+				searched(depth);
+				return depth;
+			}
+			Node<E> next = cmp < 0 ? parent.left : parent.right;
+			if(next == null) {
+				break;
+			}
+			parent = next;
+			depth++;
+		}
+		searched(depth);
+		Node<E> node = new Node<E>(e);
+		node.parent = parent;
+		if(cmp < 0) {
+			parent.left = node;
+		}
+		else {
+			parent.right = node;
+		}
+		retrace(node, 1);
+		size++;
+		modCount++;
+		if(alpha > 0) {
+			maxSize = Math.max(maxSize, size);
+			if(depth > depthBound()) {
+				rebuildScapegoat(node);
+			}
+		}
+		return depth;
+	}
+	
+	/**
+	 * Moves the depth bound to the current size. The bound only changes when
+	 * size crosses a power of 1/alpha, so adds in scapegoat mode compare two
+	 * integers instead of taking logarithms.
+	 * @return floor of log(size) in base 1/alpha
+	 */
+	private int depthBound() {
+		while(size >= boundTo) {
+			depthBound++;
+			boundFrom = boundTo;
+			boundTo = power(depthBound + 1);
+		}
+		while(size < boundFrom) {
+			depthBound--;
+			boundTo = boundFrom;
+			boundFrom = power(depthBound);
+		}
+		return depthBound;
+	}
+	
+	/**
+	 * Smallest size whose logarithm in base 1/alpha is at least the exponent
+	 * @param exponent power of 1/alpha
+	 * @return (1/alpha)^exponent rounded up
+	 */
+	private long power(int exponent) {
+		return (long)Math.ceil(Math.pow(1 / alpha, exponent));
+	}
+	
+	/**
+	 * Walks up from a Node that was added too deep to the first ancestor
+	 * whose child on the path holds more than alpha of its elements, and
+	 * rebuilds the subtree there. Such an ancestor always exists when the
+	 * depth is past log(size) in base 1/alpha.
+	 * @param node Node that was just added
+	 */
+	private void rebuildScapegoat(Node<E> node) {
+		int childSize = 1;
+		for(Node<E> parent = node.parent; parent != null; parent = parent.parent) {
+			int parentSize = parent.leftSize + parent.rightSize + 1;
+			if(childSize > alpha * parentSize) {
+				rebuild(parent);
+				return;
+			}
+			childSize = parentSize;
+		}
+	}
+	
+	/**
+	 * Rebuilds the subtree of a Node into perfect balance in O(size) time,
+	 * reusing its Nodes, then updates the heights above it
+	 * @param top root of the subtree
+	 */
+	@SuppressWarnings("unchecked")
+	private void rebuild(Node<E> top) {
+		Node<E> above = top.parent;
+		Node<E>[] nodes = (Node<E>[]) new Node[top.leftSize + top.rightSize + 1];
+		//inOrder walk of the subtree
+		ArrayDeque<Node<E>> stack = new ArrayDeque<Node<E>>();
+		Node<E> current = top;
+		int count = 0;
+		while(current != null || !stack.isEmpty()) {
+			while(current != null) {
+				stack.push(current);
+				current = current.left;
+			}
+			current = stack.pop();
+			nodes[count++] = current;
+			current = current.right;
+		}
+		
+		Node<E> rebuilt = build(nodes, 0, nodes.length - 1, above);
+		if(above == null) {
+			root = rebuilt;
+		}
+		else if(above.left == top) {
+			above.left = rebuilt;
+		}
+		else {
+			above.right = rebuilt;
+		}
+		retrace(rebuilt, 0);
+		rebuildCount++;
+	}
+	
+	/**
+	 * Links the Nodes between two indexes into a perfectly balanced subtree
+	 * @param nodes Nodes in order
+	 * @param low index of the first Node
+	 * @param high index of the last Node
+	 * @param parent Node the subtree hangs from
+	 * @return root of the subtree, null if it is empty
+	 */
+	private Node<E> build(Node<E>[] nodes, int low, int high, Node<E> parent) {
+		if(low > high) {
+			return null;
+		}
+		int mid = (low + high) >>> 1;
+		Node<E> node = nodes[mid];
+		node.parent = parent;
+		node.left = build(nodes, low, mid - 1, node);
+		node.right = build(nodes, mid + 1, high, node);
+		node.leftSize = mid - low;
+		node.rightSize = high - mid;
+		updateHeight(node);
+		return node;
+	}
+	
+	/**
+	 * Returns how many times scapegoat mode has rebuilt a subtree
+	 * @return number of rebuilds, always 0 unless the BST was created with an alpha
+	 */
+	public int rebuildCount() {
+		return rebuildCount;
+	}
+	
+	/**
+	 * Walks from a changed Node up to the root, adding delta to the size of the
+	 * side the walk comes from and updating each height
+	 * @param child Node whose subtree changed, its parent is the first Node updated
+	 * @param delta change in the number of elements below child
+	 */
+	private void retrace(Node<E> child, int delta) {
+		for(Node<E> node = child.parent; node != null; child = node, node = node.parent) {
+			if(node.left == child) {
+				node.leftSize += delta;
+			}
+			else {
+				node.rightSize += delta;
+			}
+			updateHeight(node);
+		}
+	}
 	
 	/**
 	 * Gets the left height of a Node
@@ -188,38 +672,6 @@ public class BST <E extends Comparable<E>> implements Iterable <E>{
 		return root.rightSize;
 	}	
 	
-	/**
-	 * 
-	 * @param item being added
-	 * @param root of BST
-	 * @return updated Node after element has been added (if possible)
-	 */
-    private Node<E> add ( E item, Node<E> root ) {
-
-    	//adding to empty tree
-        if ( root == null || root.data == null) {
-        	size++;
-            return new Node<E>(item);
-        }
-        
-        //item already exists
-        if ( root.data.equals(item )) {
-            return root;
-        }
-        //item is less than current Node's data
-        else if ( ((Comparable<E>) root.data).compareTo(item) < 0  ) {
-            root.right =  add ( item, root.right );
-            root.rightSize++;
-        }
-        //item is larger than current Node's data
-        else {
-            root.left = add ( item, root.left);
-            root.leftSize++;
-        }
-        this.updateHeight(root);
-        return root;
-    }
-	
 	/**
 	 * Adds all of the elements in the specified collection to this tree.
 	 * @param collection to be added to BST
@@ -248,44 +700,49 @@ public class BST <E extends Comparable<E>> implements Iterable <E>{
 	 * @return least element greater than e
 	 */
 	public E ceiling(E e) throws NullPointerException, ClassCastException{
-		if(root == null) {
-			return null;
-		}
-		if(e == null) {
-			throw new NullPointerException("Null argument");
-		}
-		else if(e.getClass() != root.data.getClass()) {
-			throw new ClassCastException("Wrong object type");
-		}
-		Node<E> current = root;
-
-		return ceiling(current, e);
+		return nearest(e, false, true);
 	}
 	
 	/**
-	 * Returns proper element that is the least element
-	 * greater than given element
-	 * back to ceiling wrapper method
-	 * @param root
+	 * Finds the closest element below or above e in a single descent, keeping
+	 * the last Node passed on the wanted side of e
 	 * @param e element
-	 * @return E smallest element that is greater than given element
+	 * @param below whether the element searched for is below e
+	 * @param inclusive whether e itself counts
+	 * @return closest element, or null if there is none
+	 * @throws NullPointerException when element is null
+	 * @throws ClassCastException when element is of the wrong type
 	 */
-	private E ceiling( Node<E> root, E e) {
+	private E nearest(E e, boolean below, boolean inclusive) throws NullPointerException, ClassCastException {
+		if(e == null) {
+			throw new NullPointerException("Null argument");
+		}
 		if(root == null) {
 			return null;
 		}
-		if(((Comparable<E>) root.data).compareTo((E)e) < 0) { //current Node element too small
-			return (E) ceiling(root.right, e);
+		if(e.getClass() != root.data.getClass()) {
+			throw new ClassCastException("Wrong object type");
 		}
-		
-		E c = (E) ceiling(root.left, e);
-		
-		if(c != null && ((Comparable<E>) c).compareTo((E)e) >= 0) {
-			return c;
+		Node<E> current = root;
+		Node<E> found = null;
+		int depth = 0;
+		while(current != null) {
+			depth++;
+			int cmp = compare(current.data, e);
+			if(cmp == 0 && inclusive) {
+				searched(depth);
+				return current.data;
+			}
+			if(below ? cmp < 0 : cmp > 0) {
+				found = current;
+				current = below ? current.right : current.left;
+			}
+			else {
+				current = below ? current.left : current.right;
+			}
 		}
-		else {
-			return (E)root.data;
-		}	
+		searched(depth);
+		return found == null ? null : found.data;
 	}
 	
 	/**
@@ -294,14 +751,16 @@ public class BST <E extends Comparable<E>> implements Iterable <E>{
 	public void clear() {
 		root = null;
 		size = 0;
+		maxSize = 0;
+		modCount++;
 	}
 	
 	/**
-	 * Clones the BST, creating a shallow copy
+	 * Clones the BST, creating a shallow copy in the same mode
 	 * @return shallow copy of BST
 	 */
 	public BST<E> clone() {
-		BST<E> clone = new BST<E>();
+		BST<E> clone = alpha == 0 ? new BST<E>() : new BST<E>(alpha);
 		Iterator<E> pre = this.preorderIterator();
 		
 		while(pre.hasNext()) {
@@ -325,22 +784,22 @@ public class BST <E extends Comparable<E>> implements Iterable <E>{
 			throw new NullPointerException("Null parameter");
 		}
 		if(root == null) { //null root
+			searched(0);
 			return false;
 		}
 		if(o.getClass() != root.data.getClass()) { //wrong class type
 			throw new ClassCastException("Parameter is of wrong type");
 		}
-		if(o.equals(root.data)) { //element is in root
-			return true;
-		}
 		Node<E> current  = root;
+		int depth = 0;
 		while(current != null) {
-			
-			if(((Comparable<E>)current.data).compareTo((E) o) == 0) {
+			depth++;
+			int cmp = compare(current.data, (E) o);
+			if(cmp == 0) {
+				searched(depth);
 				return true;
 			}
-			
-			else if(((Comparable<E>)current.data).compareTo((E) o) < 0) {
+			else if(cmp < 0) {
 				current = current.right;
 			}
 			else {
@@ -348,6 +807,7 @@ public class BST <E extends Comparable<E>> implements Iterable <E>{
 			}
 		}
 		//object not found
+		searched(depth);
 		return false;
 	}
 	
@@ -375,6 +835,61 @@ public class BST <E extends Comparable<E>> implements Iterable <E>{
 		return true;
 	}
 	
+	/**
+	 * Counts the elements within the given range [fromElement, toElement], inclusive,
+	 * in O(log n) time without visiting them
+	 * @param fromElement lower bound
+	 * @param toElement upper bound
+	 * @return number of elements within the range
+	 * @throws NullPointerException
+	 * @throws IllegalArgumentException
+	 */
+	public int countRange(E fromElement, E toElement) throws NullPointerException, IllegalArgumentException {
+		return countRange(fromElement, true, toElement, true);
+	}
+	
+	/**
+	 * Counts the elements between fromElement and toElement in O(log n) time,
+	 * from the leftSize of the Nodes on two search paths
+	 * @param fromElement lower bound
+	 * @param fromInclusive whether fromElement itself is counted
+	 * @param toElement upper bound
+	 * @param toInclusive whether toElement itself is counted
+	 * @return number of elements within the range
+	 * @throws NullPointerException
+	 * @throws IllegalArgumentException
+	 */
+	public int countRange(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive) throws NullPointerException, IllegalArgumentException {
+		checkRange(fromElement, toElement);
+		//an empty range such as (e, e) would otherwise count -1
+		return Math.max(0, countBelow(toElement, toInclusive) - countBelow(fromElement, !fromInclusive));
+	}
+	
+	/**
+	 * Counts the elements less than e, or less than or equal to e, in a single descent
+	 * @param e element
+	 * @param inclusive whether e itself is counted
+	 * @return number of elements below e
+	 */
+	private int countBelow(E e, boolean inclusive) {
+		int count = 0;
+		Node<E> current = root;
+		while(current != null) {
+			int cmp = compare(current.data, e);
+			if(cmp == 0) {
+				return count + current.leftSize + (inclusive ? 1 : 0);
+			}
+			if(cmp < 0) {
+				count += current.leftSize + 1;
+				current = current.right;
+			}
+			else {
+				current = current.left;
+			}
+		}
+		return count;
+	}
+	
 	/**
 	 * 
 	 * Compares 2 BST objects to see if they are equivalent
@@ -437,45 +952,9 @@ public class BST <E extends Comparable<E>> implements Iterable <E>{
 	 * @return largest element less than e
 	 */
 	public E floor(E e) throws NullPointerException, ClassCastException{
-		
-		if(e == null) {
-			throw new NullPointerException("Null argument");
-		}
-		else if(e.getClass() != root.data.getClass()) {
-			throw new ClassCastException("Wrong object type");
-		}
-		Node<E> current = root;
-
-		return (E) floor(current, e);
+		return nearest(e, true, true);
 	}
 	
-	/**
-	 * helper class that returns the floor
-	 * @param root
-	 * @param e
-	 * @return correct floor
-	 */
-	private E floor(Node<E> root, E e) {
-		
-		if(root == null) {
-			return null;
-		}
-		if(((Comparable<E>) root.data).compareTo((E)e) > 0) {
-			return (E) floor(root.left, e);
-		}
-		
-		E f = (E) floor(root.right, e);
-		
-		if(f != null && ((Comparable<E>) f).compareTo((E)e) <= 0) {
-			return f;
-		}
-		else {
-			return (E)root.data;
-		}	
-		
-	}
-	
-	
 	/**
 	 * Gets the element at the given index (in order) in O(H) time
 	 * @param index
@@ -486,92 +965,58 @@ public class BST <E extends Comparable<E>> implements Iterable <E>{
 		if(index < 0 || index >= size()) {
 			throw new IndexOutOfBoundsException("Index out of bounds");
 		}
-		return getHelp(root, index);
-	}
-	
-	private E getHelp(Node<E> root, int index) {
-		
-		//avoid NullPointerException
-		if(root == null) {
-			return null;
-		}
-		
-		//root is at the index
-		if(root.leftSize - index == 0) {
-			return (E)root.data;
-		}
-
-		//index is in the right child/branch
-		else if(index - root.leftSize > 0) {
-			return getHelp(root.right, index - root.leftSize - 1);
-		}
-		else {
-			return getHelp(root.left, index);
+		Node<E> current = root;
+		int depth = 1;
+		while(index != current.leftSize) {
+			if(index < current.leftSize) {
+				current = current.left;
+			}
+			else {
+				index -= current.leftSize + 1;
+				current = current.right;
+			}
+			depth++;
 		}
+		searched(depth);
+		return current.data;
 	}
 	
 	/**
-	 * Gets an ArrayList filled with all elements between fromElement and 
-	 * toElement, inclusive
+	 * Returns an ArrayList of generic type E containing all the elements
+	 * within the given range [fromElement, toElement], inclusive.
+	 * The list is sized with countRange and filled by a range iterator.
 	 * @param fromElement lower bound
 	 * @param toElement upper bound
-	 * @return ArrayList with elements in the range
+	 * @return ArrayList of type E containing elements within the range, empty if there are none
 	 * @throws NullPointerException
 	 * @throws IllegalArgumentException
 	 */
 	public ArrayList <E> getRange(E fromElement, E toElement) throws NullPointerException, IllegalArgumentException {
-		
-		if(fromElement == null || toElement == null) {
-			throw new NullPointerException("Parameters can not be null");
-		}
-		if(fromElement.compareTo(toElement) > 0) {
-			throw new IllegalArgumentException("fromElement can not be greater than toElement");
-		}
-		ArrayList<E> list = new ArrayList<E>();
-		return rangeTraverse(fromElement, toElement, root, list);
+		TreeOperationEvent event = new TreeOperationEvent();
+		event.begin();
+		ArrayList<E> list = new ArrayList<E>(countRange(fromElement, toElement));
+		Iterator<E> itr = rangeIterator(fromElement, toElement);
+		while(itr.hasNext()) {
+			list.add(itr.next());
+		}
+		commit(event, "getRange", list.size());
+		return list;
 	}
 	
 	/**
-	 * Traverses the BST to find elements within the range given
-	 * @param fromElement
-	 * @param toElement
-	 * @param root
-	 * @param list
-	 * @return
+	 * Checks the bounds of a range
+	 * @param fromElement lower bound
+	 * @param toElement upper bound
+	 * @throws NullPointerException if either bound is null
+	 * @throws IllegalArgumentException if fromElement is greater than toElement
 	 */
-	private ArrayList<E> rangeTraverse(E fromElement, E toElement, Node<E> root, ArrayList<E> list) {
-		
-		if(root == null) {
-			return null;
-		}
-		
-		//within the range
-		if(((Comparable<E>) root.data).compareTo(fromElement) >= 0 &&
-				((Comparable<E>) root.data).compareTo(toElement) <= 0) {
-			
-			rangeTraverse(fromElement, toElement, root.left, list);
-			
-			//add to arraylist 
-			list.add((E)root.data);
-
-			rangeTraverse(fromElement, toElement, root.right, list);
+	private void checkRange(E fromElement, E toElement) throws NullPointerException, IllegalArgumentException {
+		if(fromElement == null || toElement == null) {
+			throw new NullPointerException("Parameters can not be null");
 		}
-		
-		//if not within the range
-		else {	
-			//if root data is less than fromElement then recur right	
-			if(((Comparable<E>) root.data).compareTo(fromElement) < 0) {
-				rangeTraverse(fromElement, toElement, root.right, list);
-			}
-			
-		
-			//if root data is more than toElement then recur left
-			if(((Comparable<E>) root.data).compareTo(toElement) > 0) {
-				rangeTraverse(fromElement, toElement, root.left, list);
-			}
+		if(compare(fromElement, toElement) > 0) {
+			throw new IllegalArgumentException("fromElement can not be greater than toElement");
 		}
-		
-		return list;
 	}
 	
 	/**
@@ -621,40 +1066,7 @@ public class BST <E extends Comparable<E>> implements Iterable <E>{
 	 * @return E value largest value greater than e
 	 */
 	public E higher(E e) throws ClassCastException, NullPointerException {
-
-	if(e == null) {
-		throw new NullPointerException("Null argument");
-	}
-	else if(e.getClass() != root.data.getClass()) {
-		throw new ClassCastException("Wrong object type");
-	}
-	Node<E> current = root;
-	return (E) higherHelper(current, e);
-	}
-	
-	/**
-	 * Recursively returns the smallest value in BST greater than given value
-	 * @param root
-	 * @param e value
-	 * @return proper value, or null if it doesn't exist
-	 */
-	private E higherHelper(Node<E> root, E e) {
-		
-		if(root == null) {
-			return null;
-		}
-		if(((Comparable<E>) root.data).compareTo((E)e) <= 0) {
-			return higherHelper(root.right, e);
-		}
-		
-		E higher = higherHelper(root.left, e);
-		
-		if(higher != null && ((Comparable<E>) higher).compareTo((E)e) > 0) {
-			return higher;
-		}
-		else {
-			return (E)root.data;
-		}	
+		return nearest(e, false, false);
 	}
 	
 	/**
@@ -691,39 +1103,7 @@ public class BST <E extends Comparable<E>> implements Iterable <E>{
 	 * @return E value largest value less than e
 	 */
 	public E lower(E e) throws ClassCastException, NullPointerException{
-		if(e == null) {
-			throw new NullPointerException("Null argument");
-		}
-		else if(e.getClass() != root.data.getClass()) {
-			throw new ClassCastException("Wrong object type");
-		}
-		return lowerHelper(root, e);
-	}
-	
-	/**
-	 * Recursively returns the largest value in BST lower than given value
-	 * @param root
-	 * @param e value
-	 * @return proper value, or null if it doesn't exist
-	 */
-	private E lowerHelper(Node<E> root, E e) {
-		
-		if(root == null) {
-			return null;
-		}
-		if(((Comparable<E>) root.data).compareTo((E)e) >= 0) {
-			return lowerHelper(root.left, e);
-		}
-		
-		E lower = lowerHelper(root.right, e);
-		
-		if(lower != null && ((Comparable<E>) lower).compareTo((E)e) < 0) {
-			return lower;
-		}
-		else {
-			return (E)root.data;
-		}	
-		
+		return nearest(e, true, false);
 	}
 	
 	/**
@@ -733,7 +1113,7 @@ public class BST <E extends Comparable<E>> implements Iterable <E>{
 	 */
 	@Override
 	public Iterator<E> iterator() {
-		return new Itr("in");
+		return new Itr(Order.IN);
 	}
 	
 	/**
@@ -742,7 +1122,7 @@ public class BST <E extends Comparable<E>> implements Iterable <E>{
 	 * @return preOrder Iterator
 	 */
 	public Iterator<E> preorderIterator() {
-		return new Itr("pre");
+		return new Itr(Order.PRE);
 		}
 	
 	/**
@@ -751,101 +1131,255 @@ public class BST <E extends Comparable<E>> implements Iterable <E>{
 	 */
 	public Iterator<E> postorderIterator() {
 
-		return new Itr("post");
+		return new Itr(Order.POST);
+		}
+	
+	/**
+	 * Returns a lazy iterator over the elements within the given range
+	 * [fromElement, toElement], inclusive, in order
+	 * @param fromElement lower bound
+	 * @param toElement upper bound
+	 * @return Iterator over the range
+	 * @throws NullPointerException
+	 * @throws IllegalArgumentException
+	 */
+	public Iterator<E> rangeIterator(E fromElement, E toElement) throws NullPointerException, IllegalArgumentException {
+		return rangeIterator(fromElement, true, toElement, true, false);
+	}
+	
+	/**
+	 * Returns a lazy iterator over the elements between fromElement and toElement.
+	 * Seeks to the first element in O(log n) and only walks further as next()
+	 * is called, so wide ranges are never copied.
+	 * @param fromElement lower bound
+	 * @param fromInclusive whether fromElement itself is returned
+	 * @param toElement upper bound
+	 * @param toInclusive whether toElement itself is returned
+	 * @param descending whether to go from toElement down to fromElement
+	 * @return Iterator over the range
+	 * @throws NullPointerException
+	 * @throws IllegalArgumentException
+	 */
+	public Iterator<E> rangeIterator(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive,
+			boolean descending) throws NullPointerException, IllegalArgumentException {
+		checkRange(fromElement, toElement);
+		return new RangeItr(fromElement, fromInclusive, toElement, toInclusive, descending);
+	}
+	
+	/**
+	 * Returns a sequential Stream of the elements within the given range
+	 * [fromElement, toElement], inclusive, in order
+	 * @param fromElement lower bound
+	 * @param toElement upper bound
+	 * @return Stream over the range
+	 * @throws NullPointerException
+	 * @throws IllegalArgumentException
+	 */
+	public Stream<E> rangeStream(E fromElement, E toElement) throws NullPointerException, IllegalArgumentException {
+		return rangeStream(fromElement, true, toElement, true, false);
+	}
+	
+	/**
+	 * Returns a sequential Stream of the elements between fromElement and toElement,
+	 * backed by rangeIterator and sized by countRange
+	 * @param fromElement lower bound
+	 * @param fromInclusive whether fromElement itself is returned
+	 * @param toElement upper bound
+	 * @param toInclusive whether toElement itself is returned
+	 * @param descending whether to go from toElement down to fromElement
+	 * @return Stream over the range
+	 * @throws NullPointerException
+	 * @throws IllegalArgumentException
+	 */
+	public Stream<E> rangeStream(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive,
+			boolean descending) throws NullPointerException, IllegalArgumentException {
+		Iterator<E> itr = rangeIterator(fromElement, fromInclusive, toElement, toInclusive, descending);
+		int count = countRange(fromElement, fromInclusive, toElement, toInclusive);
+		return StreamSupport.stream(Spliterators.spliterator(itr, count,
+				Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+	}
+	
+	/**
+	 * Restructures the existing Nodes into a perfectly balanced tree using
+	 * Day-Stout-Warren, in O(n) time and O(1) extra space. Right rotations
+	 * first turn the tree into a vine of right children, then rounds of left
+	 * rotations fold the vine in half until it is balanced. A last walk along
+	 * the parent pointers recomputes every height, leftSize and rightSize.
+	 */
+	public void rebalance() {
+		if(root == null) {
+			return;
+		}
+		//placeholder above the root so rotations at the top need no special case
+		Node<E> pseudoRoot = new Node<E>(null);
+		pseudoRoot.right = root;
+		root.parent = pseudoRoot;
+		
+		//tree to vine
+		Node<E> tail = pseudoRoot;
+		Node<E> rest = root;
+		while(rest != null) {
+			if(rest.left == null) {
+				tail = rest;
+				rest = rest.right;
+			}
+			else {
+				Node<E> left = rest.left;
+				rest.left = left.right;
+				if(left.right != null) {
+					left.right.parent = rest;
+				}
+				left.right = rest;
+				rest.parent = left;
+				left.parent = tail;
+				tail.right = left;
+				rest = left;
+			}
+		}
+		
+		//vine to tree, the first round leaves the bottom level only partly filled
+		int full = Integer.highestOneBit(size + 1) - 1;
+		compress(pseudoRoot, size - full);
+		for(int count = full / 2; count > 0; count /= 2) {
+			compress(pseudoRoot, count);
+		}
+		root = pseudoRoot.right;
+		root.parent = null;
+		
+		//postOrder walk so children are updated before their parent
+		Node<E> previous = null;
+		Node<E> node = root;
+		while(node != null) {
+			Node<E> next;
+			if(previous == node.parent && node.left != null) {
+				next = node.left;
+			}
+			else if(previous != node.right && node.right != null) {
+				next = node.right;
+			}
+			else {
+				node.leftSize = node.left == null ? 0 : node.left.leftSize + node.left.rightSize + 1;
+				node.rightSize = node.right == null ? 0 : node.right.leftSize + node.right.rightSize + 1;
+				updateHeight(node);
+				next = node.parent;
+			}
+			previous = node;
+			node = next;
 		}
+		maxSize = size;
+		modCount++;
+	}
 	
-	//boolean to see whether or not the element is already in the BST or not
-	private boolean found;
+	/**
+	 * Rotates left every other Node along the right spine below a Node,
+	 * count times, so each rotated Node becomes the left child of the next
+	 * @param top Node above the spine
+	 * @param count number of rotations
+	 */
+	private void compress(Node<E> top, int count) {
+		Node<E> scanner = top;
+		for(int i = 0; i < count; i++) {
+			Node<E> child = scanner.right;
+			scanner.right = child.right;
+			child.right.parent = scanner;
+			scanner = scanner.right;
+			child.right = scanner.left;
+			if(scanner.left != null) {
+				scanner.left.parent = child;
+			}
+			scanner.left = child;
+			child.parent = scanner;
+		}
+	}
 	
 	/**
 	 * function removes given element inside a BST, returns true. Returns false
 	 * if element was not found.
-	 * @param val 
+	 * Commits a TreeOperationEvent if the remove runs past its threshold.
+	 * @param o element being removed
 	 * @return whether element has been found and removed or not
 	 */
 	public boolean remove(Object o) throws ClassCastException, NullPointerException {
+		TreeOperationEvent event = new TreeOperationEvent();
+		event.begin();
+		int oldSize = size;
+		int visited = delete(o);
+		commit(event, "remove", visited);
+		return size != oldSize;
+	}
+	
+	/**
+	 * Removes the given element.
+	 * Descends once without recursion. A Node with two children takes the value
+	 * of its predecessor, and the predecessor's Node is unlinked instead, then
+	 * the parent pointers are followed back up to update sizes and heights.
+	 * In scapegoat mode the whole tree is rebuilt once it has shrunk below
+	 * alpha times its largest size.
+	 * @param o element being removed
+	 * @return number of Nodes visited, size shrinks by one if element has been found and removed
+	 */
+	@SuppressWarnings("unchecked")
+	private int delete(Object o) throws ClassCastException, NullPointerException {
 		if(o == null) {
 			throw new NullPointerException("Specified element is null");
 		}
-        found = false;
-        root = recRemove(o, root);
-        if(found) {
-        	size--;
-        }
-        return found;
-    }
-
-	/**
-	 * Finds given node containing the target value
-	 * @param target value to find in the BST
-	 * @param node that is being checked for target value
-	 * @return entire modified Node, or the root, that has either been modified or not
-	 */
-    @SuppressWarnings("unchecked")
-	private Node<E> recRemove(Object target, Node<E> node)
-    {
-        if (node == null) {
-            found = false;
-        }
-        else if (((Comparable<E>) target).compareTo(node.data) < 0) {
-            node.left = recRemove(target, node.left);
-            updateHeight(node.left);
-            //if we found the node AKA are removing something
-            if(found) {
-            	node.leftSize--;
-            }
-        }
-        else if (((Comparable<E>) target).compareTo((E) node.data) > 0) {
-            node.right = recRemove(target, node.right );
-            updateHeight(node.right);
-            if(found) {
-            	node.rightSize--;
-            }
-        }
-        else {
-        	node.leftSize--;
-            node = removeNode(node);
-            found = true;
-        }
-
-        updateHeight(node);
-        return node;
-    }
-
-    /**
-     * Removes the node with given target value from the BST
-     * @param node
-     * @return updated branch after given node has been removed
-     */
-	private Node<E> removeNode(Node<E> node) {
-        E data;
-
-        if (node.left == null)
-            return node.right ;
-        else if (node.right  == null)
-            return node.left;
-
-        else {
-            data = (E) getPredecessor(node.left);
-            node.data = data;
-            node.left = recRemove(data, node.left);
-            return node;
-        }
-    }
-
-    /**
-     * Finds the predecessor, or the largest value on the left branch of the 
-     * root to replace the node that is being replaced
-     * @param subtree
-     * @return element E that is the predecessor
-     */
-    private E getPredecessor(Node<E> subtree)
-    {
-        Node<E> temp = subtree;
-        while (temp.right  != null)
-            temp = temp.right ;
-        return (E) temp.data;
-    }
+		Node<E> node = root;
+		int depth = 0;
+		while(node != null) {
+			depth++;
+			int cmp = compare((E) o, node.data);
+			if(cmp == 0) {
+				break;
+			}
+			node = cmp < 0 ? node.left : node.right;
+		}
+		searched(depth);
+		if(node == null) {
+			return depth;
+		}
+		if(node.left != null && node.right != null) {
+			if(metrics != null) {
+				metrics.removedPredecessor();
+			}
+			Node<E> predecessor = node.left;
+			while(predecessor.right != null) {
+				predecessor = predecessor.right;
+			}
+			node.data = predecessor.data;
+			node = predecessor;
+		}
+		
+		//node has at most one child, which takes its place
+		Node<E> child = node.left != null ? node.left : node.right;
+		Node<E> parent = node.parent;
+		if(child != null) {
+			child.parent = parent;
+		}
+		if(parent == null) {
+			root = child;
+		}
+		else {
+			if(parent.left == node) {
+				parent.left = child;
+				parent.leftSize--;
+			}
+			else {
+				parent.right = child;
+				parent.rightSize--;
+			}
+			updateHeight(parent);
+			retrace(parent, -1);
+		}
+		size--;
+		modCount++;
+		if(alpha > 0 && size < alpha * maxSize) {
+			if(root != null) {
+				rebuild(root);
+			}
+			maxSize = size;
+		}
+		return depth;
+	}
 	
 	/**
 	 * Returns the size of the BST, or how many elements are in it
@@ -879,36 +1413,65 @@ public class BST <E extends Comparable<E>> implements Iterable <E>{
 	
 
 	/**
-	 * Formats the BST for a readable output
+	 * Formats the BST for a readable output.
+	 * Walks the tree in preOrder through the parent pointers instead of recursing,
+	 * so a degenerate tree prints without running out of stack.
 	 * @param tree root of the BST
 	 * @param level of the node
 	 * @param output formatted BST
 	 */
-   private void preOrderPrint(Node<E> tree, int level, StringBuilder output) {
-        if (tree != null) {
-            String spaces = "\n";
-            if (level > 0) {
-                for (int i = 0; i < level - 1; i++)
-                    spaces += "   ";
-                spaces += "|--";
-            }
-            output.append(spaces);
-            output.append(tree.data);
-            preOrderPrint(tree.left, level + 1, output);
-            preOrderPrint(tree.right, level + 1, output);
-        }
-        // uncomment the part below to show "null children" in the output
-        else {
-            String spaces = "\n";
-            if (level > 0) {
-                for (int i = 0; i < level - 1; i++)
-                    spaces += "   ";
-                spaces += "|--";
-            }
-            output.append(spaces);
-            output.append("null");
-        }
-    }
+	private void preOrderPrint(Node<E> tree, int level, StringBuilder output) {
+		appendLine(tree, level, output);
+		if(tree == null) {
+			return;
+		}
+		Node<E> top = tree.parent;
+		Node<E> node = tree;
+		//0: left child is next, 1: right child is next, 2: go back up
+		int step = 0;
+		while(node != top) {
+			if(step == 0) {
+				appendLine(node.left, level + 1, output);
+				step = 1;
+				if(node.left != null) {
+					node = node.left;
+					level++;
+					step = 0;
+				}
+			}
+			else if(step == 1) {
+				appendLine(node.right, level + 1, output);
+				step = 2;
+				if(node.right != null) {
+					node = node.right;
+					level++;
+					step = 0;
+				}
+			}
+			else {
+				step = node.parent != null && node.parent.left == node ? 1 : 2;
+				node = node.parent;
+				level--;
+			}
+		}
+	}
+	
+	/**
+	 * Appends one line of the formatted BST
+	 * @param node Node on the line, null children are shown as "null"
+	 * @param level of the node
+	 * @param output formatted BST
+	 */
+	private void appendLine(Node<E> node, int level, StringBuilder output) {
+		output.append("\n");
+		if (level > 0) {
+			for (int i = 0; i < level - 1; i++) {
+				output.append("   ");
+			}
+			output.append("|--");
+		}
+		output.append(node == null ? "null" : node.data);
+	}
 
 
    /**
@@ -0,0 +1,99 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import project6.BST;
+
+/**
+ * Benchmarks BST on its worst case, keys inserted in sorted order. Every key
+ * lands below the one before it, so the tree is a chain of height size.
+ *
+ * sortedInsert builds a new chain from all the keys, the other benchmarks work
+ * on the deepest Node of the chain built during setup: the last key inserted.
+ * With an alpha above 0 the BST runs in scapegoat mode, so there is no chain
+ * and the same benchmarks show what the rebuilds cost and save.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BSTBenchmark {
+
+	@Param({"1000", "10000", "100000"})
+	public int size;
+
+	@Param({"SORTED", "REVERSE_SORTED"})
+	public KeyStream stream;
+
+	@Param({"0", "0.7"})
+	public double alpha;
+
+	private Integer[] keys;
+	private Integer deepest;
+	private int deepestIndex;
+
+	private BST<Integer> chain;
+
+	@Setup(Level.Trial)
+	public void fill() {
+		keys = stream.boxed(size, 42);
+		chain = newTree();
+		for(Integer key: keys) {
+			chain.add(key);
+		}
+		deepest = keys[size - 1];
+		deepestIndex = deepest;
+	}
+
+	/**
+	 * Creates an empty BST, in scapegoat mode if alpha is set
+	 * @return empty BST
+	 */
+	private BST<Integer> newTree() {
+		return alpha == 0 ? new BST<Integer>() : new BST<Integer>(alpha);
+	}
+
+	@Benchmark
+	public BST<Integer> sortedInsert() {
+		BST<Integer> bst = newTree();
+		for(Integer key: keys) {
+			bst.add(key);
+		}
+		return bst;
+	}
+
+	@Benchmark
+	public Integer floorDeepest() {
+		return chain.floor(deepest);
+	}
+
+	@Benchmark
+	public Integer getDeepest() {
+		return chain.get(deepestIndex);
+	}
+
+	/**
+	 * Adds the key back so the chain keeps its shape
+	 * @return whether the key was added back
+	 */
+	@Benchmark
+	public boolean removeDeepest() {
+		chain.remove(deepest);
+		return chain.add(deepest);
+	}
+}
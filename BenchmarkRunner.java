@@ -0,0 +1,92 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.NoBenchmarksException;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs every benchmark in this package twice: once in throughput mode (ops/s)
+ * and once in sample mode, which reports the latency percentiles (p50 to p99.99).
+ * Both passes run with the gc profiler so the allocation rate (gc.alloc.rate and
+ * gc.alloc.rate.norm, bytes per operation) is reported next to each score.
+ *
+ * JMH can not take the thread count as a parameter, so ConcurrentSetBenchmark
+ * is run separately, once for each of 1, 2, 4, 8, 16, 32 and 64 threads, unless
+ * the command line sets the thread count with -t.
+ *
+ * Any regular JMH command line option can be passed to narrow the run, e.g.
+ * <pre>
+ * java bench.BenchmarkRunner TreeBenchmark.avl -p size=1000000 -p stream=ZIPFIAN
+ * java bench.BenchmarkRunner ConcurrentSetBenchmark -p size=100000
+ * </pre>
+ */
+public class BenchmarkRunner {
+
+	//benchmarks swept over the thread counts, as a JMH include pattern
+	private static final String THREAD_SWEEP = "bench\\.ConcurrentSetBenchmark\\.";
+	private static final int MAX_THREADS = 64;
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		if(commandLine.getIncludes().isEmpty()) {
+			commandLine = new CommandLineOptions(append(args, "bench\\..*Benchmark\\..*"));
+		}
+		if(commandLine.getThreads().hasValue()) {
+			run(commandLine);
+			return;
+		}
+
+		run(new OptionsBuilder().parent(commandLine).exclude(THREAD_SWEEP).build());
+		for(int threads = 1; threads <= MAX_THREADS; threads *= 2) {
+			//keeps only the swept benchmarks among the ones the command line includes
+			run(new OptionsBuilder().parent(commandLine).exclude("^(?!" + THREAD_SWEEP + ")").threads(threads).build());
+		}
+	}
+
+	/**
+	 * Runs a throughput pass and a latency pass, both with the gc profiler.
+	 * Does nothing if the options match no benchmark.
+	 * @param parent options of both passes
+	 * @throws RunnerException if a benchmark fails
+	 */
+	private static void run(Options parent) throws RunnerException {
+		try {
+			new Runner(new OptionsBuilder()
+					.parent(parent)
+					.mode(Mode.Throughput)
+					.timeUnit(TimeUnit.SECONDS)
+					.addProfiler(GCProfiler.class)
+					.build()).run();
+		}
+		catch(NoBenchmarksException e) {
+			return;
+		}
+		new Runner(new OptionsBuilder()
+				.parent(parent)
+				.mode(Mode.SampleTime)
+				.timeUnit(TimeUnit.NANOSECONDS)
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+
+	/**
+	 * Appends one argument to the end of the command line
+	 * @param args original arguments
+	 * @param arg argument being appended
+	 * @return new argument array
+	 */
+	private static String[] append(String[] args, String arg) {
+		String[] all = new String[args.length + 1];
+		System.arraycopy(args, 0, all, 0, args.length);
+		all[args.length] = arg;
+		return all;
+	}
+}
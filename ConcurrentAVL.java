@@ -0,0 +1,263 @@
+package project6;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * This class is a thread-safe AVL for read-heavy workloads.
+ * Writers take the write lock of a StampedLock one at a time. Readers do not
+ * lock at all: they search the underlying AVL under an optimistic stamp and
+ * only keep the answer if no writer got the lock in the meantime. A search
+ * that raced with a writer may see a half-rotated tree, so it may throw or
+ * give a wrong answer, but the stamp no longer validates, and the search is
+ * then repeated under the read lock.
+ * The AVL's own searches never take more steps than its height, so a racing
+ * search can not loop forever.
+ *
+ * @param <E> generic element
+ */
+public class ConcurrentAVL <E> {
+
+	private final AVL<E> tree;
+	private final StampedLock lock = new StampedLock();
+
+	public ConcurrentAVL() {
+		tree = new AVL<E>();
+	}
+
+	/**
+	 * Creates an empty ConcurrentAVL ordered by the given Comparator
+	 * @param comparator ordering of the elements, null for natural ordering
+	 */
+	public ConcurrentAVL(Comparator<? super E> comparator) {
+		tree = new AVL<E>(comparator);
+	}
+
+	/**
+	 * Runs a search without locking, and again under the read lock if a writer
+	 * may have changed the tree while it ran
+	 * @param search search of the underlying AVL
+	 * @return result of the search
+	 */
+	private <R> R read(Supplier<R> search) {
+		long stamp = lock.tryOptimisticRead();
+		if(stamp != 0) {
+			try {
+				R result = search.get();
+				if(lock.validate(stamp)) {
+					return result;
+				}
+			}
+			catch(RuntimeException e) {
+				//a real failure, such as a null argument, also fails under the lock
+				if(lock.validate(stamp)) {
+					throw e;
+				}
+			}
+		}
+		stamp = lock.readLock();
+		try {
+			return search.get();
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Adds the element
+	 * @param e element being added
+	 * @return whether element has been added or not
+	 * @throws NullPointerException when element is null
+	 */
+	public boolean add(E e) throws NullPointerException {
+		long stamp = lock.writeLock();
+		try {
+			return tree.add(e);
+		}
+		finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Adds all of the elements in the specified collection under a single write lock
+	 * @param collection to be added
+	 * @return whether the tree has changed or not
+	 * @throws NullPointerException if collection is null or if any of its elements are null
+	 */
+	public boolean addAll(Collection<? extends E> collection) throws NullPointerException {
+		long stamp = lock.writeLock();
+		try {
+			return tree.addAll(collection);
+		}
+		finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Removes the element
+	 * @param o element being removed
+	 * @return whether element has been found and removed or not
+	 * @throws NullPointerException when element is null
+	 */
+	public boolean remove(Object o) throws NullPointerException, ClassCastException {
+		long stamp = lock.writeLock();
+		try {
+			return tree.remove(o);
+		}
+		finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Removes every element
+	 */
+	public void clear() {
+		long stamp = lock.writeLock();
+		try {
+			tree.clear();
+		}
+		finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Checks whether given object exists, without locking unless a writer interferes
+	 * @param o Object being searched for
+	 * @return whether object exists or not
+	 */
+	public boolean contains(Object o) throws NullPointerException, ClassCastException {
+		return read(() -> tree.contains(o));
+	}
+
+	/**
+	 * Returns the largest element less than or equal to e, or null if there is none
+	 * @param e element
+	 * @return largest element less than or equal to e
+	 */
+	public E floor(E e) throws NullPointerException, ClassCastException {
+		return read(() -> tree.floor(e));
+	}
+
+	/**
+	 * Returns the least element greater than or equal to e, or null if there is none
+	 * @param e element
+	 * @return least element greater than or equal to e
+	 */
+	public E ceiling(E e) throws NullPointerException, ClassCastException {
+		return read(() -> tree.ceiling(e));
+	}
+
+	/**
+	 * Returns the least element strictly greater than e, or null if there is none
+	 * @param e element
+	 * @return least element greater than e
+	 */
+	public E higher(E e) throws NullPointerException, ClassCastException {
+		return read(() -> tree.higher(e));
+	}
+
+	/**
+	 * Returns the largest element strictly less than e, or null if there is none
+	 * @param e element
+	 * @return largest element less than e
+	 */
+	public E lower(E e) throws NullPointerException, ClassCastException {
+		return read(() -> tree.lower(e));
+	}
+
+	/**
+	 * Gets the element at the given index in sorted order
+	 * @param index index of the element
+	 * @return element at given index
+	 * @throws IndexOutOfBoundsException
+	 */
+	public E get(int index) throws IndexOutOfBoundsException {
+		return read(() -> tree.get(index));
+	}
+
+	/**
+	 * Returns lowest (smallest) element
+	 * @return lowest element
+	 * @throws NoSuchElementException if empty
+	 */
+	public E first() throws NoSuchElementException {
+		return read(tree::first);
+	}
+
+	/**
+	 * Returns largest element
+	 * @return largest element
+	 * @throws NoSuchElementException if empty
+	 */
+	public E last() throws NoSuchElementException {
+		return read(tree::last);
+	}
+
+	/**
+	 * Returns an ArrayList of all the elements within the range [fromElement, toElement],
+	 * copied under the read lock
+	 * @param fromElement lower bound
+	 * @param toElement upper bound
+	 * @return ArrayList of type E containing elements within the range
+	 */
+	public ArrayList<E> getRange(E fromElement, E toElement) throws NullPointerException, IllegalArgumentException {
+		long stamp = lock.readLock();
+		try {
+			return tree.getRange(fromElement, toElement);
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Returns how many elements are in the tree
+	 * @return size
+	 */
+	public int size() {
+		long stamp = lock.tryOptimisticRead();
+		int size = tree.size();
+		if(!lock.validate(stamp)) {
+			stamp = lock.readLock();
+			try {
+				size = tree.size();
+			}
+			finally {
+				lock.unlockRead(stamp);
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Returns true if empty, false if not
+	 * @return size == 0
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Returns a String representation in order, taken under the read lock
+	 * @return String Array representation
+	 */
+	@Override
+	public String toString() {
+		long stamp = lock.readLock();
+		try {
+			return tree.toString();
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+}
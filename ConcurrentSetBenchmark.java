@@ -0,0 +1,117 @@
+package bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import project6.AVL;
+import project6.ConcurrentAVL;
+import project6.LockFreeSkipList;
+
+/**
+ * Compares the ordered sets that can be shared between threads: LockFreeSkipList,
+ * ConcurrentAVL and an AVL guarded by a single lock. Every thread runs a mix of
+ * add, remove and contains on random keys from [0, 2 * size), so the sets stay
+ * about half full. writePercent is the share of add and remove calls in the mix.
+ *
+ * JMH can not take the thread count as a parameter, so BenchmarkRunner runs
+ * this benchmark once for each of 1, 2, 4, 8, 16, 32 and 64 threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentSetBenchmark {
+
+	/**
+	 * Operations the benchmark needs from every set
+	 */
+	private interface Target {
+		boolean add(Integer e);
+		boolean remove(Integer e);
+		boolean contains(Integer e);
+	}
+
+	@Param({"LOCK_FREE_SKIP_LIST", "CONCURRENT_AVL", "LOCKED_AVL"})
+	public String impl;
+
+	@Param({"100000", "1000000"})
+	public int size;
+
+	@Param({"50", "90"})
+	public int writePercent;
+
+	private Target target;
+	private Integer[] keys;
+
+	@Setup(Level.Trial)
+	public void fill() {
+		keys = new Integer[2 * size];
+		for(int i = 0; i < keys.length; i++) {
+			keys[i] = i;
+		}
+		if(impl.equals("LOCK_FREE_SKIP_LIST")) {
+			LockFreeSkipList<Integer> set = new LockFreeSkipList<Integer>();
+			target = new Target() {
+				public boolean add(Integer e) { return set.add(e); }
+				public boolean remove(Integer e) { return set.remove(e); }
+				public boolean contains(Integer e) { return set.contains(e); }
+			};
+		}
+		else if(impl.equals("CONCURRENT_AVL")) {
+			ConcurrentAVL<Integer> set = new ConcurrentAVL<Integer>();
+			target = new Target() {
+				public boolean add(Integer e) { return set.add(e); }
+				public boolean remove(Integer e) { return set.remove(e); }
+				public boolean contains(Integer e) { return set.contains(e); }
+			};
+		}
+		else {
+			AVL<Integer> set = new AVL<Integer>();
+			target = new Target() {
+				public synchronized boolean add(Integer e) { return set.add(e); }
+				public synchronized boolean remove(Integer e) { return set.remove(e); }
+				public synchronized boolean contains(Integer e) { return set.contains(e); }
+			};
+		}
+		SplittableRandom random = new SplittableRandom(42);
+		for(int i = 0; i < size; i++) {
+			target.add(keys[random.nextInt(keys.length)]);
+		}
+	}
+
+	/**
+	 * Per-thread source of keys and operations
+	 */
+	@State(Scope.Thread)
+	public static class ThreadRandom {
+		private final SplittableRandom random = new SplittableRandom();
+	}
+
+	@Benchmark
+	public boolean mixed(ThreadRandom thread) {
+		Integer key = keys[thread.random.nextInt(keys.length)];
+		int dice = thread.random.nextInt(100);
+		if(dice < writePercent / 2) {
+			return target.add(key);
+		}
+		if(dice < writePercent) {
+			return target.remove(key);
+		}
+		return target.contains(key);
+	}
+}
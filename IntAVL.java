@@ -0,0 +1,634 @@
+package project6;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * This class is an AVL tree of primitive int keys.
+ * Offers the same operations as AVL without boxing: instead of a Node object
+ * per element, the Nodes live in parallel arrays (struct of arrays) and refer
+ * to their children by index, so a Node costs 17 bytes and searching never
+ * allocates or chases object pointers.
+ * Index 0 is a sentinel for the missing child with size 0 and height 0.
+ * Removed Nodes are kept on a free list, chained through their left index,
+ * and reused by later adds.
+ * floor, ceiling, higher and lower return noEntryValue() when there is no
+ * such element, since a primitive can not be null.
+ */
+public class IntAVL {
+
+	private static final int NIL = 0;
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private int[] keys;
+	private int[] left;
+	private int[] right;
+	//number of Nodes in the subtree, replaces leftSize and rightSize
+	private int[] size;
+	private byte[] height;
+
+	private int root;
+	private int count;
+	//first index that has never been used
+	private int next;
+	//head of the list of removed Nodes
+	private int free;
+	private final int noEntryValue;
+
+	public IntAVL() {
+		this(DEFAULT_CAPACITY, Integer.MIN_VALUE);
+	}
+
+	/**
+	 * Creates an empty IntAVL
+	 * @param initialCapacity number of elements it can hold before growing
+	 * @param noEntryValue value returned by floor, ceiling, higher and lower when there is no such element
+	 * @throws IllegalArgumentException if initialCapacity is negative
+	 */
+	public IntAVL(int initialCapacity, int noEntryValue) throws IllegalArgumentException {
+		if(initialCapacity < 0) {
+			throw new IllegalArgumentException("Negative capacity");
+		}
+		allocate(initialCapacity + 1);
+		this.noEntryValue = noEntryValue;
+		root = NIL;
+		next = 1;
+	}
+
+	/**
+	 * Creates a balanced IntAVL out of the given keys in O(n) after sorting a copy of them
+	 * @param collection keys, duplicates are ignored
+	 * @throws IllegalArgumentException if collection is null
+	 */
+	public IntAVL(int[] collection) throws IllegalArgumentException {
+		if(collection == null) {
+			throw new IllegalArgumentException("Null argument not allowed");
+		}
+		int[] sorted = collection.clone();
+		Arrays.sort(sorted);
+		int unique = 0;
+		for(int i = 0; i < sorted.length; i++) {
+			if(unique == 0 || sorted[unique - 1] != sorted[i]) {
+				sorted[unique++] = sorted[i];
+			}
+		}
+		allocate(unique + 1);
+		noEntryValue = Integer.MIN_VALUE;
+		next = 1;
+		root = build(sorted, 0, unique - 1);
+		count = unique;
+	}
+
+	/**
+	 * Creates the Node arrays
+	 * @param capacity number of Nodes, including the sentinel
+	 */
+	private void allocate(int capacity) {
+		keys = new int[capacity];
+		left = new int[capacity];
+		right = new int[capacity];
+		size = new int[capacity];
+		height = new byte[capacity];
+	}
+
+	/**
+	 * Builds a perfectly balanced tree out of a sorted array without duplicates
+	 * @param sorted keys
+	 * @param low left subindex
+	 * @param high right subindex
+	 * @return root of the balanced tree
+	 */
+	private int build(int[] sorted, int low, int high) {
+		if(low > high) {
+			return NIL;
+		}
+		int mid = (low + high) >>> 1;
+		int node = newNode(sorted[mid]);
+		left[node] = build(sorted, low, mid - 1);
+		right[node] = build(sorted, mid + 1, high);
+		update(node);
+		return node;
+	}
+
+	/**
+	 * Makes sure one more Node can be created without growing the arrays,
+	 * so no array is replaced in the middle of a recursive add
+	 */
+	private void ensureCapacity() {
+		if(free != NIL || next < keys.length) {
+			return;
+		}
+		int capacity = keys.length + (keys.length >> 1) + 1;
+		if(capacity < 0) {
+			capacity = Integer.MAX_VALUE - 8;
+		}
+		keys = Arrays.copyOf(keys, capacity);
+		left = Arrays.copyOf(left, capacity);
+		right = Arrays.copyOf(right, capacity);
+		size = Arrays.copyOf(size, capacity);
+		height = Arrays.copyOf(height, capacity);
+	}
+
+	/**
+	 * Takes a Node off the free list, or the next unused index
+	 * @param key key of the Node
+	 * @return index of the new Node
+	 */
+	private int newNode(int key) {
+		int node;
+		if(free != NIL) {
+			node = free;
+			free = left[node];
+		}
+		else {
+			node = next++;
+		}
+		keys[node] = key;
+		left[node] = NIL;
+		right[node] = NIL;
+		size[node] = 1;
+		height[node] = 1;
+		return node;
+	}
+
+	/**
+	 * Puts a removed Node on the free list
+	 * @param node index of the Node
+	 */
+	private void release(int node) {
+		left[node] = free;
+		right[node] = NIL;
+		free = node;
+	}
+
+	/**
+	 * Adds the key to the IntAVL
+	 * @param key key being added
+	 * @return whether key has been added or not
+	 */
+	public boolean add(int key) {
+		ensureCapacity();
+		int oldCount = count;
+		root = add(root, key);
+		return oldCount != count;
+	}
+
+	/**
+	 * Recursively adds the key below the given Node and rebalances on the way up
+	 * @param node root of the subtree
+	 * @param key key being added
+	 * @return new root of the subtree
+	 */
+	private int add(int node, int key) {
+		if(node == NIL) {
+			count++;
+			return newNode(key);
+		}
+		if(key < keys[node]) {
+			left[node] = add(left[node], key);
+		}
+		else if(key > keys[node]) {
+			right[node] = add(right[node], key);
+		}
+		else {
+			return node;
+		}
+		return rebalance(node);
+	}
+
+	/**
+	 * Removes the key from the IntAVL
+	 * @param key key being removed
+	 * @return whether key has been found and removed or not
+	 */
+	public boolean remove(int key) {
+		int oldCount = count;
+		root = remove(root, key);
+		return oldCount != count;
+	}
+
+	/**
+	 * Recursively removes the key below the given Node and rebalances on the way up.
+	 * A Node with two children takes the key of its predecessor instead.
+	 * @param node root of the subtree
+	 * @param key key being removed
+	 * @return new root of the subtree
+	 */
+	private int remove(int node, int key) {
+		if(node == NIL) {
+			return NIL;
+		}
+		if(key < keys[node]) {
+			left[node] = remove(left[node], key);
+		}
+		else if(key > keys[node]) {
+			right[node] = remove(right[node], key);
+		}
+		else {
+			count--;
+			if(left[node] == NIL || right[node] == NIL) {
+				int child = left[node] != NIL ? left[node] : right[node];
+				release(node);
+				return child;
+			}
+			int predecessor = left[node];
+			while(right[predecessor] != NIL) {
+				predecessor = right[predecessor];
+			}
+			keys[node] = keys[predecessor];
+			left[node] = removeLast(left[node]);
+		}
+		return rebalance(node);
+	}
+
+	/**
+	 * Removes the largest Node of the subtree
+	 * @param node root of the subtree
+	 * @return new root of the subtree
+	 */
+	private int removeLast(int node) {
+		if(right[node] == NIL) {
+			int child = left[node];
+			release(node);
+			return child;
+		}
+		right[node] = removeLast(right[node]);
+		return rebalance(node);
+	}
+
+	/**
+	 * Recomputes the size and height of a Node from its children
+	 * @param node index of the Node
+	 */
+	private void update(int node) {
+		size[node] = size[left[node]] + size[right[node]] + 1;
+		height[node] = (byte) (Math.max(height[left[node]], height[right[node]]) + 1);
+	}
+
+	/**
+	 * Updates the Node and rotates it if it is out of balance
+	 * @param node index of the Node
+	 * @return root of the balanced subtree
+	 */
+	private int rebalance(int node) {
+		update(node);
+		int balance = height[right[node]] - height[left[node]];
+
+		//right height is more than 1 greater than left height
+		if(balance > 1) {
+			int child = right[node];
+			if(height[left[child]] > height[right[child]]) {
+				return balanceRL(node);
+			}
+			return balanceRR(node);
+		}
+		else if(balance < -1) {
+			int child = left[node];
+			if(height[right[child]] > height[left[child]]) {
+				return balanceLR(node);
+			}
+			return balanceLL(node);
+		}
+		return node;
+	}
+
+	/**
+	 * Performs single right rotation for a left-left imbalance
+	 * @param a unbalanced Node
+	 * @return root of balanced tree
+	 */
+	private int balanceLL(int a) {
+		int b = left[a];
+		left[a] = right[b];
+		right[b] = a;
+		update(a);
+		update(b);
+		return b;
+	}
+
+	/**
+	 * Performs single left rotation for a right-right imbalance
+	 * @param a unbalanced Node
+	 * @return root of balanced tree
+	 */
+	private int balanceRR(int a) {
+		int b = right[a];
+		right[a] = left[b];
+		left[b] = a;
+		update(a);
+		update(b);
+		return b;
+	}
+
+	/**
+	 * Performs double left-right rotation
+	 * @param a unbalanced Node
+	 * @return root of balanced tree
+	 */
+	private int balanceLR(int a) {
+		left[a] = balanceRR(left[a]);
+		return balanceLL(a);
+	}
+
+	/**
+	 * Performs double right-left rotation
+	 * @param a unbalanced Node
+	 * @return root of balanced tree
+	 */
+	private int balanceRL(int a) {
+		right[a] = balanceLL(right[a]);
+		return balanceRR(a);
+	}
+
+	/**
+	 * Checks whether the key exists in the IntAVL
+	 * @param key key being searched for
+	 * @return whether key exists or not
+	 */
+	public boolean contains(int key) {
+		int node = root;
+		while(node != NIL) {
+			if(key < keys[node]) {
+				node = left[node];
+			}
+			else if(key > keys[node]) {
+				node = right[node];
+			}
+			else {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the lowest (smallest) key
+	 * @return lowest key
+	 * @throws NoSuchElementException if the IntAVL is empty
+	 */
+	public int first() throws NoSuchElementException {
+		if(root == NIL) {
+			throw new NoSuchElementException("Set is empty");
+		}
+		int node = root;
+		while(left[node] != NIL) {
+			node = left[node];
+		}
+		return keys[node];
+	}
+
+	/**
+	 * Returns the largest key
+	 * @return largest key
+	 * @throws NoSuchElementException if the IntAVL is empty
+	 */
+	public int last() throws NoSuchElementException {
+		if(root == NIL) {
+			throw new NoSuchElementException("Set is empty");
+		}
+		int node = root;
+		while(right[node] != NIL) {
+			node = right[node];
+		}
+		return keys[node];
+	}
+
+	/**
+	 * Returns the largest key less than or equal to the given key
+	 * @param key key
+	 * @return largest key less than or equal to key, or noEntryValue() if there is none
+	 */
+	public int floor(int key) {
+		int node = root;
+		int found = NIL;
+		while(node != NIL) {
+			if(keys[node] == key) {
+				return key;
+			}
+			if(keys[node] < key) {
+				found = node;
+				node = right[node];
+			}
+			else {
+				node = left[node];
+			}
+		}
+		return found == NIL ? noEntryValue : keys[found];
+	}
+
+	/**
+	 * Returns the least key greater than or equal to the given key
+	 * @param key key
+	 * @return least key greater than or equal to key, or noEntryValue() if there is none
+	 */
+	public int ceiling(int key) {
+		int node = root;
+		int found = NIL;
+		while(node != NIL) {
+			if(keys[node] == key) {
+				return key;
+			}
+			if(keys[node] > key) {
+				found = node;
+				node = left[node];
+			}
+			else {
+				node = right[node];
+			}
+		}
+		return found == NIL ? noEntryValue : keys[found];
+	}
+
+	/**
+	 * Returns the least key strictly greater than the given key
+	 * @param key key
+	 * @return least key greater than key, or noEntryValue() if there is none
+	 */
+	public int higher(int key) {
+		int node = root;
+		int found = NIL;
+		while(node != NIL) {
+			if(keys[node] > key) {
+				found = node;
+				node = left[node];
+			}
+			else {
+				node = right[node];
+			}
+		}
+		return found == NIL ? noEntryValue : keys[found];
+	}
+
+	/**
+	 * Returns the largest key strictly less than the given key
+	 * @param key key
+	 * @return largest key less than key, or noEntryValue() if there is none
+	 */
+	public int lower(int key) {
+		int node = root;
+		int found = NIL;
+		while(node != NIL) {
+			if(keys[node] < key) {
+				found = node;
+				node = right[node];
+			}
+			else {
+				node = left[node];
+			}
+		}
+		return found == NIL ? noEntryValue : keys[found];
+	}
+
+	/**
+	 * Gets the key at the given index in sorted order in O(log n) time
+	 * @param index index of the key
+	 * @return key at given index
+	 * @throws IndexOutOfBoundsException
+	 */
+	public int get(int index) throws IndexOutOfBoundsException {
+		if(index < 0 || index >= count) {
+			throw new IndexOutOfBoundsException("Index out of bounds");
+		}
+		int node = root;
+		while(true) {
+			int leftSize = size[left[node]];
+			if(index < leftSize) {
+				node = left[node];
+			}
+			else if(index > leftSize) {
+				index -= leftSize + 1;
+				node = right[node];
+			}
+			else {
+				return keys[node];
+			}
+		}
+	}
+
+	/**
+	 * Counts the keys strictly less than the given key
+	 * @param key key
+	 * @return number of smaller keys
+	 */
+	private int countLess(int key) {
+		int node = root;
+		int less = 0;
+		while(node != NIL) {
+			if(keys[node] < key) {
+				less += size[left[node]] + 1;
+				node = right[node];
+			}
+			else {
+				node = left[node];
+			}
+		}
+		return less;
+	}
+
+	/**
+	 * Returns all the keys within the given range [fromKey, toKey], inclusive, in sorted order
+	 * @param fromKey lower bound
+	 * @param toKey upper bound
+	 * @return sorted array of the keys within the range
+	 * @throws IllegalArgumentException if fromKey is greater than toKey
+	 */
+	public int[] getRange(int fromKey, int toKey) throws IllegalArgumentException {
+		if(fromKey > toKey) {
+			throw new IllegalArgumentException("fromKey can not be greater than toKey");
+		}
+		int less = countLess(fromKey);
+		int upTo = toKey == Integer.MAX_VALUE ? count : countLess(toKey + 1);
+		int[] range = new int[upTo - less];
+		rangeTraverse(root, fromKey, toKey, range, 0);
+		return range;
+	}
+
+	/**
+	 * Copies the keys of the subtree within the range into the array in order
+	 * @param node root of the subtree
+	 * @param fromKey lower bound
+	 * @param toKey upper bound
+	 * @param range array being filled
+	 * @param position next free position of the array
+	 * @return next free position after this subtree
+	 */
+	private int rangeTraverse(int node, int fromKey, int toKey, int[] range, int position) {
+		while(node != NIL) {
+			if(keys[node] < fromKey) {
+				node = right[node];
+			}
+			else if(keys[node] > toKey) {
+				node = left[node];
+			}
+			else {
+				position = rangeTraverse(left[node], fromKey, toKey, range, position);
+				range[position++] = keys[node];
+				node = right[node];
+			}
+		}
+		return position;
+	}
+
+	/**
+	 * Gets the height of the IntAVL
+	 * @return height
+	 */
+	public int height() {
+		return height[root];
+	}
+
+	/**
+	 * Returns the size of the IntAVL, or how many keys are in it
+	 * @return size
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Returns true if IntAVL is empty, false if it is not
+	 * @return size == 0
+	 */
+	public boolean isEmpty() {
+		return count == 0;
+	}
+
+	/**
+	 * Returns the value that floor, ceiling, higher and lower return when there is no such key
+	 * @return noEntryValue
+	 */
+	public int noEntryValue() {
+		return noEntryValue;
+	}
+
+	/**
+	 * Removes every key. The arrays are kept and reused by later adds.
+	 */
+	public void clear() {
+		root = NIL;
+		count = 0;
+		next = 1;
+		free = NIL;
+	}
+
+	/**
+	 * Places the keys into an array in sorted order
+	 * @return sorted array of keys
+	 */
+	public int[] toArray() {
+		int[] arr = new int[count];
+		if(count > 0) {
+			rangeTraverse(root, first(), last(), arr, 0);
+		}
+		return arr;
+	}
+
+	/**
+	 * Returns a String representation of IntAVL in order
+	 * @return String Array representation of IntAVL
+	 */
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+}
@@ -0,0 +1,116 @@
+package bench;
+
+import java.util.SplittableRandom;
+
+/**
+ * Key distributions used by the benchmarks. Each constant produces a stream
+ * of n int keys from a fixed seed so every implementation and every run sees
+ * the exact same sequence.
+ */
+public enum KeyStream {
+
+	/**
+	 * Keys drawn uniformly at random from [0, n)
+	 */
+	UNIFORM {
+		@Override
+		public int[] generate(int n, long seed) {
+			SplittableRandom random = new SplittableRandom(seed);
+			int[] keys = new int[n];
+			for(int i = 0; i < n; i++) {
+				keys[i] = random.nextInt(n);
+			}
+			return keys;
+		}
+	},
+
+	/**
+	 * Keys 0, 1, ..., n-1 in ascending order
+	 */
+	SORTED {
+		@Override
+		public int[] generate(int n, long seed) {
+			int[] keys = new int[n];
+			for(int i = 0; i < n; i++) {
+				keys[i] = i;
+			}
+			return keys;
+		}
+	},
+
+	/**
+	 * Keys n-1, n-2, ..., 0 in descending order
+	 */
+	REVERSE_SORTED {
+		@Override
+		public int[] generate(int n, long seed) {
+			int[] keys = new int[n];
+			for(int i = 0; i < n; i++) {
+				keys[i] = n - 1 - i;
+			}
+			return keys;
+		}
+	},
+
+	/**
+	 * Keys in [0, n) following a Zipf distribution with exponent 0.99,
+	 * so key 0 is the most popular, key 1 the second most popular and so on.
+	 * Uses the generator from Gray et al., "Quickly Generating Billion-Record
+	 * Synthetic Databases".
+	 */
+	ZIPFIAN {
+		@Override
+		public int[] generate(int n, long seed) {
+			final double theta = 0.99;
+			SplittableRandom random = new SplittableRandom(seed);
+
+			double zetan = 0;
+			for(int i = 1; i <= n; i++) {
+				zetan += 1 / Math.pow(i, theta);
+			}
+			double zeta2 = 1 + 1 / Math.pow(2, theta);
+			double alpha = 1 / (1 - theta);
+			double eta = (1 - Math.pow(2.0 / n, 1 - theta)) / (1 - zeta2 / zetan);
+
+			int[] keys = new int[n];
+			for(int i = 0; i < n; i++) {
+				double u = random.nextDouble();
+				double uz = u * zetan;
+				if(uz < 1) {
+					keys[i] = 0;
+				}
+				else if(uz < zeta2) {
+					keys[i] = 1;
+				}
+				else {
+					keys[i] = (int) Math.min(n - 1, (long) (n * Math.pow(eta * u - eta + 1, alpha)));
+				}
+			}
+			return keys;
+		}
+	};
+
+	/**
+	 * Generates n keys following this distribution
+	 * @param n number of keys, also the size of the key space
+	 * @param seed random seed
+	 * @return array of keys
+	 */
+	public abstract int[] generate(int n, long seed);
+
+	/**
+	 * Generates n keys and boxes them up front so the benchmarks
+	 * do not measure Integer allocation
+	 * @param n number of keys
+	 * @param seed random seed
+	 * @return array of boxed keys
+	 */
+	public Integer[] boxed(int n, long seed) {
+		int[] keys = generate(n, seed);
+		Integer[] boxed = new Integer[n];
+		for(int i = 0; i < n; i++) {
+			boxed[i] = keys[i];
+		}
+		return boxed;
+	}
+}
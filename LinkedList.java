@@ -4,8 +4,13 @@ import java.lang.reflect.Array;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
@@ -14,6 +19,9 @@ import java.util.stream.Stream;
  * Generic Singly Linked List. Stores a pointer to the head and tail
  * to improve performance of certain functions. Has a size variable to
  * calculate size more efficiently.
+ * get(int) and indexOf move a finger over the list and may build a block
+ * index, so like every other method they are not safe to call from several
+ * threads at once, even when no thread is adding or removing.
  */
 public class LinkedList<E> implements Collection<E>,  Iterable<E> {
 	
@@ -57,6 +65,26 @@ public class LinkedList<E> implements Collection<E>,  Iterable<E> {
 	private Node<E> head;
 	private Node<E> tail;
 	private int size;
+	//larger collections are copied into a HashSet before bulk removes probe them
+	private static final int HASH_PROBE_THRESHOLD = 16;
+	//smallest list, and smallest run, that parallelSort sorts in the fork-join pool
+	private static final int PARALLEL_SORT_THRESHOLD = 1 << 13;
+	//positional lookups within this many Nodes of head or the finger just walk
+	private static final int BLOCK = 16;
+	
+	//finger: the last Node found by position, and its index. null when unset
+	private Node<E> finger;
+	private int fingerIndex;
+	//block index over the chain, null until a lookup needs it. blockFirst[b]
+	//is the first Node of block b, blockSize[b] its length and blockTree a
+	//Fenwick tree of the lengths, all 1-based. blocks start BLOCK long, shrink
+	//as Nodes are removed and the last one grows to 2 * BLOCK on add.
+	//emptyBlocks counts the blocks removes have left without Nodes
+	private Node<E>[] blockFirst;
+	private int[] blockSize;
+	private int[] blockTree;
+	private int blocks;
+	private int emptyBlocks;
 	
 	
 	public LinkedList(){
@@ -107,6 +135,7 @@ public class LinkedList<E> implements Collection<E>,  Iterable<E> {
 	
 	/**
 	 * removes Node at the given index and returns element in that Node
+	 * in O(log n), finding the Node before it the same way as get
 	 * @param pos
 	 * @return element 
 	 */
@@ -116,70 +145,556 @@ public class LinkedList<E> implements Collection<E>,  Iterable<E> {
     	//removes head if LinkedList of pos == 0
     	if (pos == 0 ) {
     		Node<E> current = head; 
-    		head = head.next; 
-    		size -- ;
+    		unlink(null, current);
+    		removedAt(0, current);
     		return (E)current.element; 
     	}
     	
-    	//acts as an iterator
-    	Node<E> prev = head;
-    	Node<E> cur = head.next; 
-    	int at = 1; 
-    	
-    	while ( at < pos ) {
-    		prev = prev.next; 
-    		cur = cur.next; 
-    		at++;
-    	}
+    	//finds the Node before pos through the finger or the block index
+    	seek(pos - 1);
+    	Node<E> prev = finger;
+    	Node<E> cur = prev.next; 
     	//removes pointer to Node at index pos and sets pointer to the Node after it
-    	prev.next = cur.next; 
-    	size--; 
+    	unlink(prev, cur);
+    	removedAt(pos, cur);
     	
     	return (E)cur.element;
     	
     }
+    
+	/**
+	 * unlinks a Node from the LinkedList, moving head or tail if it was at either end
+	 * @param prev Node before node, null if node is the head
+	 * @param node Node being unlinked
+	 */
+	private void unlink(Node<E> prev, Node<E> node) {
+		if(prev == null) {
+			head = node.next;
+		}
+		else {
+			prev.next = node.next;
+		}
+		if(node == tail) {
+			tail = prev;
+		}
+		size--;
+	}
+	
+	/**
+	 * moves the finger to the Node at index, in O(1) for the tail or a Node
+	 * just past the finger, otherwise in O(log n) through the block index,
+	 * which is built on the first lookup that needs it. indexed loops walk
+	 * one Node per step
+	 * @param index position of the Node, 0 <= index < size
+	 * @return number of Nodes walked, counting the one the walk started at
+	 */
+	private int seek(int index) {
+		Node<E> node;
+		int at;
+		if(index == size - 1) {
+			node = tail;
+			at = index;
+		}
+		else if(finger != null && index >= fingerIndex && index - fingerIndex <= BLOCK) {
+			node = finger;
+			at = fingerIndex;
+		}
+		else if(index <= BLOCK) {
+			node = head;
+			at = 0;
+		}
+		else {
+			if(blockFirst == null) {
+				buildIndex();
+			}
+			int block = blockOf(index);
+			node = blockFirst[block];
+			at = startOf(block);
+		}
+		int walked = index - at + 1;
+		for(; at < index; at++) {
+			node = node.next;
+		}
+		finger = node;
+		fingerIndex = index;
+		return walked;
+	}
+	
+	/**
+	 * splits the chain into blocks of BLOCK Nodes and indexes them, in O(n)
+	 */
+	@SuppressWarnings("unchecked")
+	private void buildIndex() {
+		int count = (size + BLOCK - 1) / BLOCK;
+		//room to double by add before the arrays are copied
+		int capacity = Math.max(16, Integer.highestOneBit(count) << 1);
+		blockFirst = new Node[capacity + 1];
+		blockSize = new int[capacity + 1];
+		blocks = count;
+		emptyBlocks = 0;
+		Node<E> node = head;
+		for(int b = 1; b <= count; b++) {
+			blockFirst[b] = node;
+			blockSize[b] = Math.min(BLOCK, size - (b - 1) * BLOCK);
+			for(int i = 0; i < blockSize[b]; i++) {
+				node = node.next;
+			}
+		}
+		buildTree();
+	}
+	
+	/**
+	 * builds the Fenwick tree of the block lengths in O(number of blocks)
+	 */
+	private void buildTree() {
+		blockTree = blockSize.clone();
+		for(int b = 1; b < blockTree.length; b++) {
+			int parent = b + (b & -b);
+			if(parent < blockTree.length) {
+				blockTree[parent] += blockTree[b];
+			}
+		}
+	}
+	
+	/**
+	 * descends the Fenwick tree to the block holding index, in O(log n)
+	 * @param index position in the list, 0 <= index < size
+	 * @return 1-based block, never an empty one
+	 */
+	private int blockOf(int index) {
+		int block = 0;
+		int before = 0;
+		for(int step = Integer.highestOneBit(blockTree.length - 1); step > 0; step >>= 1) {
+			int next = block + step;
+			if(next < blockTree.length && before + blockTree[next] <= index) {
+				block = next;
+				before += blockTree[next];
+			}
+		}
+		return block + 1;
+	}
+	
+	/**
+	 * sums the lengths of the blocks before block, in O(log n)
+	 * @param block 1-based block
+	 * @return index of the first Node of block
+	 */
+	private int startOf(int block) {
+		int start = 0;
+		for(block--; block > 0; block -= block & -block) {
+			start += blockTree[block];
+		}
+		return start;
+	}
+	
+	/**
+	 * changes the length of a block in the block index
+	 * @param block 1-based block
+	 * @param delta change in length
+	 */
+	private void resize(int block, int delta) {
+		blockSize[block] += delta;
+		for(; block < blockTree.length; block += block & -block) {
+			blockTree[block] += delta;
+		}
+	}
+	
+	/**
+	 * updates the finger and the block index after the Node at index was unlinked.
+	 * the block index is dropped, to be rebuilt by the next lookup, once more
+	 * than a quarter of its blocks are empty or they are under a quarter full
+	 * on average, so churn does not leave it mostly empty blocks
+	 * @param index position node had before it was unlinked
+	 * @param node Node that was unlinked, its next still set
+	 */
+	private void removedAt(int index, Node<E> node) {
+		if(finger != null && index <= fingerIndex) {
+			finger = null;
+		}
+		if(blockFirst == null) {
+			return;
+		}
+		int block = blockOf(index);
+		if(startOf(block) == index) {
+			//the block now starts at the Node after, unless it is left empty
+			blockFirst[block] = node.next;
+		}
+		resize(block, -1);
+		if(blockSize[block] == 0) {
+			emptyBlocks++;
+		}
+		if(emptyBlocks > blocks / 4 || size < blocks * (BLOCK / 4)) {
+			dropBlocks();
+		}
+	}
+	
+	/**
+	 * adds a Node appended at the tail to the last block of the block index,
+	 * or to a new block once the last one is 2 * BLOCK long
+	 * @param node Node that was appended
+	 */
+	private void appended(Node<E> node) {
+		if(blockFirst == null) {
+			return;
+		}
+		if(blocks > 0 && blockSize[blocks] == 0) {
+			//the last block was emptied by removes, it takes the Node
+			emptyBlocks--;
+		}
+		else if(blocks == 0 || blockSize[blocks] >= 2 * BLOCK) {
+			if(blocks + 1 == blockFirst.length) {
+				blockFirst = Arrays.copyOf(blockFirst, 2 * blocks + 1);
+				blockSize = Arrays.copyOf(blockSize, 2 * blocks + 1);
+				buildTree();
+			}
+			blocks++;
+		}
+		if(blockSize[blocks] == 0) {
+			blockFirst[blocks] = node;
+		}
+		resize(blocks, 1);
+	}
+	
+	/**
+	 * forgets the finger and the block index after Nodes were relinked in bulk,
+	 * the index is rebuilt by the next lookup that needs it
+	 */
+	private void dropIndex() {
+		finger = null;
+		dropBlocks();
+	}
+	
+	/**
+	 * forgets the block index, the finger stays valid
+	 */
+	private void dropBlocks() {
+		blockFirst = null;
+		blockSize = null;
+		blockTree = null;
+		blocks = 0;
+		emptyBlocks = 0;
+	}
    
 	/**
-	 * removes element from LinkedList
+	 * removes the first occurrence of element from LinkedList in a single pass,
+	 * keeping the previous Node so the match can be unlinked where it is found
+	 * commits a ListOperationEvent if the remove runs past its threshold
 	 * @return true if element is removed and false if element is not in List
 	 * @param o
 	 */
     @Override
     public boolean remove(Object o) {
-    	if(!contains(o)) {
-    		return false;
+    	ListOperationEvent event = new ListOperationEvent();
+    	event.begin();
+    	Node<E> prev = null;
+    	Node<E> current = head;
+    	int visited = 0;
+    	while(current != null) {
+    		visited++;
+    		if(current.element.equals(o)) {
+    			unlink(prev, current);
+    			removedAt(visited - 1, current);
+    			commit(event, "remove", visited);
+    			return true;
+    		}
+    		prev = current;
+    		current = current.next;
     	}
-    	int index = indexOf(o);
-    	remove(index);
-    	return true;
+    	commit(event, "remove", visited);
+    	return false;
     }
+    
+	/**
+	 * fills in and commits an operation event if it ran past its threshold
+	 * @param event event begun when the operation started
+	 * @param operation name of the operation
+	 * @param visited number of Nodes the operation visited
+	 */
+	private void commit(ListOperationEvent event, String operation, long visited) {
+		if(event.shouldCommit()) {
+			event.operation = operation;
+			event.size = size;
+			event.visited = visited;
+			event.commit();
+		}
+	}
 	
     /**
-     * sorts LinkedList
+     * sorts LinkedList by the natural ordering of its elements
+     * stable, relinks the existing Nodes in place, see sort(Comparator)
+     * commits a ListOperationEvent if the sort runs past its threshold
+     * @throws ClassCastException if the elements are not mutually comparable
      */
 	public void sort ( ) {
-		//creates array with LinkedList's elements and sorts
-		Object [] array = toArray();
-		Arrays.sort(array);
-		this.clear();
-		//stores sorted array elements back into LinkedList after clearing it
-		for (Object o : array ) {
-		this.add( (E)o );
-		}
+		sort(naturalOrder());
+	}
+	
+	/**
+	 * returns a Comparator for the natural ordering of the elements
+	 * @return natural ordering
+	 */
+	@SuppressWarnings("unchecked")
+	private Comparator<E> naturalOrder() {
+		return (a, b) -> ((Comparable<? super E>) a).compareTo(b);
 	}
 	
 	/**
 	 * sorts LinkedList based on Comparator
-	 * @param comp
+	 * merge sort that relinks the existing Nodes, in O(n log n) time without
+	 * allocating Nodes or copying into an array. the Nodes are taken off the
+	 * list one at a time and merged like a binary counter: pending[i] holds a
+	 * sorted run of 2^i Nodes, and each new Node carries merges up through the
+	 * occupied slots. small runs are merged while their Nodes are still in
+	 * cache, unlike a bottom-up sort that walks the whole list once per level.
+	 * the only extra memory is the fixed array of 32 runs.
+	 * equal elements keep their order. if the Comparator throws, every element
+	 * is still in the list, in whatever order the sort had reached
+	 * commits a ListOperationEvent if the sort runs past its threshold
+	 * @param comp ordering of the elements, null for natural ordering
 	 */
 	public void sort ( Comparator <E> comp ) {
-		//creates array with LinkedList's elements and sorts
-		Object [] array = toArray();
-		Arrays.sort((E[])array, comp);
-		this.clear();
-		//stores sorted array elements back into LinkedList after clearing it
-		for (Object o : array ) {
-		this.add( (E)o );
+		if(comp == null) {
+			sort();
+			return;
+		}
+		ListOperationEvent event = new ListOperationEvent();
+		event.begin();
+		mergeSort(comp);
+		//each element was visited once per merge it took part in, about log n times
+		commit(event, "sort", (long) size * (32 - Integer.numberOfLeadingZeros(size)));
+	}
+	
+	/**
+	 * sorts LinkedList based on Comparator, using the cores of the common
+	 * fork-join pool. the chain is cut into contiguous runs in one pass, the
+	 * runs are sorted concurrently with the same merge sort as sort(Comparator),
+	 * and neighbouring runs are merged by relinking their Nodes, the earlier run
+	 * on the left. the sort is stable, so the result is the same as sort(Comparator).
+	 * lists smaller than PARALLEL_SORT_THRESHOLD, or a pool with a single
+	 * thread, use sort(Comparator) instead.
+	 * if the Comparator throws, every element is still in the list
+	 * commits a ListOperationEvent if the sort runs past its threshold
+	 * @param comp ordering of the elements, null for natural ordering
+	 */
+	@SuppressWarnings("unchecked")
+	public void parallelSort ( Comparator <E> comp ) {
+		if(comp == null) {
+			comp = naturalOrder();
+		}
+		int parallelism = ForkJoinPool.getCommonPoolParallelism();
+		if(size < PARALLEL_SORT_THRESHOLD || parallelism < 2) {
+			sort(comp);
+			return;
+		}
+		ListOperationEvent event = new ListOperationEvent();
+		event.begin();
+		dropIndex();
+		
+		//a few runs per thread so that threads finishing early can steal work
+		int count = (int) Math.min(size / PARALLEL_SORT_THRESHOLD, 4L * parallelism);
+		LinkedList<E>[] runs = new LinkedList[count];
+		Node<E> node = head;
+		for(int i = 0; i < count; i++) {
+			LinkedList<E> run = new LinkedList<E>();
+			run.size = size / count + (i < size % count ? 1 : 0);
+			run.head = node;
+			for(int j = 1; j < run.size; j++) {
+				node = node.next;
+			}
+			run.tail = node;
+			node = node.next;
+			run.tail.next = null;
+			runs[i] = run;
+		}
+		
+		head = null;
+		tail = null;
+		try {
+			LinkedList<E> sorted = ForkJoinPool.commonPool().invoke(new SortTask(runs, 0, count, comp));
+			head = sorted.head;
+			tail = sorted.tail;
+		}
+		catch(RuntimeException e) {
+			//every task has finished, each Node is in exactly one run
+			for(LinkedList<E> run: runs) {
+				link(run.head);
+			}
+			throw e;
+		}
+		commit(event, "parallelSort", (long) size * (32 - Integer.numberOfLeadingZeros(size)));
+	}
+	
+	/**
+	 * Task sorting the runs between two indexes in the fork-join pool and
+	 * merging them into the first of them
+	 */
+	private class SortTask extends RecursiveTask<LinkedList<E>> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final LinkedList<E>[] runs;
+		private final int low;
+		private final int high;
+		private final Comparator<? super E> comp;
+		
+		public SortTask(LinkedList<E>[] runs, int low, int high, Comparator<? super E> comp) {
+			this.runs = runs;
+			this.low = low;
+			this.high = high;
+			this.comp = comp;
+		}
+
+		/**
+		 * sorts a single run in place, or forks the lower half of the runs,
+		 * sorts the upper half itself and merges the two
+		 * @return run holding every Node of the runs between low and high
+		 */
+		@Override
+		protected LinkedList<E> compute() {
+			if(high - low == 1) {
+				runs[low].mergeSort(comp);
+				return runs[low];
+			}
+			int mid = (low + high) >>> 1;
+			SortTask lower = new SortTask(runs, low, mid, comp);
+			lower.fork();
+			LinkedList<E> upper;
+			try {
+				upper = new SortTask(runs, mid, high, comp).compute();
+			}
+			finally {
+				//never leave a forked task running after an exception
+				lower.quietlyJoin();
+			}
+			LinkedList<E> merged = lower.join();
+			merged.absorb(upper, comp);
+			return merged;
+		}
+	}
+	
+	/**
+	 * merges a sorted LinkedList of later elements into this sorted one,
+	 * leaving the other empty even if the Comparator throws
+	 * @param other sorted LinkedList whose Nodes are moved into this one
+	 * @param comp ordering of the elements
+	 */
+	private void absorb(LinkedList<E> other, Comparator<? super E> comp) {
+		try {
+			merge(head, other.head, comp);
+		}
+		finally {
+			size += other.size;
+			other.head = null;
+			other.tail = null;
+			other.size = 0;
+		}
+	}
+	
+	/**
+	 * merge sort behind sort(Comparator) and the runs of parallelSort
+	 * @param comp ordering of the elements
+	 */
+	@SuppressWarnings("unchecked")
+	private void mergeSort(Comparator<? super E> comp) {
+		if(size < 2) {
+			return;
+		}
+		dropIndex();
+		Node<E>[] pending = (Node<E>[]) new Node[32];
+		Node<E> rest = head;
+		try {
+			while(rest != null) {
+				Node<E> run = rest;
+				rest = rest.next;
+				run.next = null;
+				int i = 0;
+				//earlier runs go on the left so equal elements keep their order
+				for(; pending[i] != null; i++) {
+					Node<E> earlier = pending[i];
+					pending[i] = null;
+					run = merge(earlier, run, comp);
+				}
+				pending[i] = run;
+			}
+			Node<E> sorted = null;
+			for(int i = 0; i < pending.length; i++) {
+				if(pending[i] != null) {
+					Node<E> earlier = pending[i];
+					pending[i] = null;
+					sorted = sorted == null ? earlier : merge(earlier, sorted, comp);
+				}
+			}
+			//the last merge covered every Node, so head and tail are already set
+		}
+		catch(RuntimeException e) {
+			//head to tail holds the merge that failed, the other runs are added back
+			for(Node<E> run: pending) {
+				link(run);
+			}
+			link(rest);
+			throw e;
+		}
+	}
+	
+	/**
+	 * merges two sorted chains into one, building it from head to tail.
+	 * if the Comparator throws, the rest of both chains is linked after the
+	 * Nodes already merged so that head to tail still holds all of them
+	 * @param left sorted chain of the earlier elements
+	 * @param right sorted chain of the later elements
+	 * @param comp ordering of the elements
+	 * @return first Node of the merged chain, also the new head
+	 */
+	private Node<E> merge(Node<E> left, Node<E> right, Comparator<? super E> comp) {
+		head = null;
+		tail = null;
+		try {
+			while(left != null && right != null) {
+				//take from the right chain only when strictly less, for stability
+				if(comp.compare(right.element, left.element) < 0) {
+					append(right);
+					right = right.next;
+				}
+				else {
+					append(left);
+					left = left.next;
+				}
+			}
+		}
+		catch(RuntimeException e) {
+			link(left);
+			link(right);
+			throw e;
+		}
+		link(left != null ? left : right);
+		return head;
+	}
+	
+	/**
+	 * makes node the new tail without following its next reference
+	 * @param node Node being appended
+	 */
+	private void append(Node<E> node) {
+		if(tail == null) {
+			head = node;
+		}
+		else {
+			tail.next = node;
+		}
+		tail = node;
+	}
+	
+	/**
+	 * appends a whole chain, moving tail to its last Node
+	 * @param chain first Node of the chain, may be null
+	 */
+	private void link(Node<E> chain) {
+		if(chain == null) {
+			return;
+		}
+		append(chain);
+		while(tail.next != null) {
+			tail = tail.next;
 		}
 	}
 	
@@ -212,6 +727,7 @@ public class LinkedList<E> implements Collection<E>,  Iterable<E> {
 	/**
 	 * checks and returns index of object given in the LinkedList
 	 * returns -1 if object is not present 
+	 * leaves the finger on the match so a following get or remove of its index is O(1)
 	 * @param c
 	 * @return index of parameter in the list
 	 *
@@ -222,6 +738,9 @@ public class LinkedList<E> implements Collection<E>,  Iterable<E> {
 		Node current = head;
 		while ( current != null) {
 			if(current.element.equals(c)) {
+				//a get or remove of the index found starts from here
+				finger = current;
+				fingerIndex = count;
 				return count;
 			}
 			current = current.next;
@@ -233,6 +752,9 @@ public class LinkedList<E> implements Collection<E>,  Iterable<E> {
 	
 	/**
 	 * returns the element at the given index
+	 * in O(log n), or O(1) for the tail and for the index after the last one
+	 * found, so a loop over every index is O(n) in total
+	 * commits a ListOperationEvent if the get runs past its threshold
 	 * @param index index of the element
 	 * @return generic E
 	 * @throws IndexOutOfBoundsException
@@ -241,11 +763,11 @@ public class LinkedList<E> implements Collection<E>,  Iterable<E> {
 		if (index < 0 || index >= size()) {
 			throw new IndexOutOfBoundsException("index is less than 0 or greater than list size");
 		}
-		Node<E> t = head;
-		for(int i = 0; i < index; i++) {
-			t = t.next;
-		}
-		return (E)t.element;
+		ListOperationEvent event = new ListOperationEvent();
+		event.begin();
+		int walked = seek(index);
+		commit(event, "get", walked);
+		return (E)finger.element;
 	}
 
 	/**
@@ -293,11 +815,18 @@ public class LinkedList<E> implements Collection<E>,  Iterable<E> {
 	/**
 	 * nested class that allows Iteration 
 	 * implements Iterator<E> interface
+	 * keeps the Node before the last one returned so remove() can unlink in O(1)
 	 * 
 	 */
 	private class Itr implements Iterator<E>{
 		
 		Node<E> current = head;
+		//null before the first next() and after remove()
+		Node<E> lastReturned;
+		//Node before lastReturned, null while lastReturned is the head
+		Node<E> prev;
+		//index of current
+		int nextIndex;
 
 		@Override
 		public boolean hasNext() {
@@ -317,12 +846,33 @@ public class LinkedList<E> implements Collection<E>,  Iterable<E> {
 			if (current == null) {
 				throw new NoSuchElementException("There is no next element");
 			}
+			//a removed Node leaves prev where it is
+			if(lastReturned != null) {
+				prev = lastReturned;
+			}
+			lastReturned = current;
 			E curr = (E) current.element;
 			current = current.next;
+			nextIndex++;
 			
 			return curr;
 		}
 		
+		/**
+		 * removes the last element returned by next() in O(1)
+		 * @throws IllegalStateException if next() has not been called since the last remove()
+		 */
+		@Override
+		public void remove() throws IllegalStateException {
+			if(lastReturned == null) {
+				throw new IllegalStateException("next has not been called");
+			}
+			unlink(prev, lastReturned);
+			nextIndex--;
+			removedAt(nextIndex, lastReturned);
+			lastReturned = null;
+		}
+		
 	}
 
 	/**
@@ -392,6 +942,7 @@ public class LinkedList<E> implements Collection<E>,  Iterable<E> {
 			tail = tail.next;
 			size++;
 		}
+		appended(tail);
 		return true;
 	}
 	
@@ -416,31 +967,129 @@ public class LinkedList<E> implements Collection<E>,  Iterable<E> {
 
 	/**
 	 * Adds all of the elements in the specified collection
-	 * to this collection 
-	 * @throws UnsupportedOperationException due to no implementation
+	 * to the end of this collection 
+	 * links them into a chain of their own first, then splices the chain
+	 * onto the tail, so nothing is added if an element is null
+	 * @param c Collection of elements
+	 * @return true if the LinkedList changed
+	 * @throws NullPointerException if c is null
+	 * @throws IllegalArgumentException if an element of c is null
 	 */
 	@Override
-	public boolean addAll(Collection<? extends E> c) throws UnsupportedOperationException {
-		throw new UnsupportedOperationException("No method implementation");
+	public boolean addAll(Collection<? extends E> c) throws NullPointerException, IllegalArgumentException {
+		Objects.requireNonNull(c, "Collection is null");
+		Node<E> first = null;
+		Node<E> last = null;
+		int count = 0;
+		for(E e: c) {
+			if(e == null) {
+				throw new IllegalArgumentException("Not allowing null parameter");
+			}
+			Node<E> node = new Node<E>(e);
+			if(first == null) {
+				first = node;
+			}
+			else {
+				last.next = node;
+			}
+			last = node;
+			count++;
+		}
+		if(count == 0) {
+			return false;
+		}
+		if(isEmpty()) {
+			head = first;
+		}
+		else {
+			tail.next = first;
+		}
+		tail = last;
+		size += count;
+		dropIndex();
+		return true;
 	}
 	
 	/**
 	 * Removes all of the elements in the specified collection
-	 * @throws UnsupportedOperationException due to no implementation
+	 * in one pass over the LinkedList
+	 * @param c Collection of elements to remove
+	 * @return true if the LinkedList changed
+	 * @throws NullPointerException if c is null
 	 */
 	@Override
-	public boolean removeAll(Collection<?> c) throws UnsupportedOperationException {
-		throw new UnsupportedOperationException("No method implementation");
+	public boolean removeAll(Collection<?> c) throws NullPointerException {
+		Collection<?> probe = probe(c);
+		return removeMatching(e -> probe.contains(e));
 	}
 
 	/**
 	 * Retains only the elements in this collection that are 
 	 * contained in the specified collection
-	 * @throws UnsupportedOperationException due to no implementation
+	 * in one pass over the LinkedList
+	 * @param c Collection of elements to keep
+	 * @return true if the LinkedList changed
+	 * @throws NullPointerException if c is null
 	 */
 	@Override
-	public boolean retainAll(Collection<?> c) throws UnsupportedOperationException {
-		throw new UnsupportedOperationException("No method implementation");
+	public boolean retainAll(Collection<?> c) throws NullPointerException {
+		Collection<?> probe = probe(c);
+		return removeMatching(e -> !probe.contains(e));
+	}
+	
+	/**
+	 * Removes all of the elements that satisfy the given filter
+	 * in one pass over the LinkedList
+	 * @param filter returns true for elements to remove
+	 * @return true if the LinkedList changed
+	 * @throws NullPointerException if filter is null
+	 */
+	@Override
+	public boolean removeIf(Predicate<? super E> filter) throws NullPointerException {
+		Objects.requireNonNull(filter, "Filter is null");
+		return removeMatching(filter);
+	}
+	
+	/**
+	 * Returns a collection that answers contains for the elements of c
+	 * in O(1): c itself if it is a Set or small, otherwise a HashSet copy
+	 * @param c Collection being probed
+	 * @return collection with the same elements as c
+	 * @throws NullPointerException if c is null
+	 */
+	private static Collection<?> probe(Collection<?> c) throws NullPointerException {
+		Objects.requireNonNull(c, "Collection is null");
+		if(c instanceof Set || c.size() <= HASH_PROBE_THRESHOLD) {
+			return c;
+		}
+		return new HashSet<Object>(c);
+	}
+	
+	/**
+	 * unlinks every Node whose element satisfies the filter in one pass,
+	 * keeping the last Node that stays so each match is unlinked where it is found
+	 * @param filter returns true for elements to remove
+	 * @return true if any Node was unlinked
+	 */
+	private boolean removeMatching(Predicate<? super E> filter) {
+		int oldSize = size;
+		Node<E> prev = null;
+		Node<E> current = head;
+		while(current != null) {
+			Node<E> next = current.next;
+			if(filter.test(current.element)) {
+				unlink(prev, current);
+			}
+			else {
+				prev = current;
+			}
+			current = next;
+		}
+		if(size == oldSize) {
+			return false;
+		}
+		dropIndex();
+		return true;
 	}
 	
 	/**
@@ -452,14 +1101,15 @@ public class LinkedList<E> implements Collection<E>,  Iterable<E> {
 		}
 	
 	/**
-	 * removes all Nodes from LinkedList
+	 * removes all Nodes from LinkedList in O(1)
+	 * the garbage collector reclaims the unreachable chain
 	 */
 	@Override
 	public void clear() {
-		for(Object o: this) {
-			remove(o);
-		}
+		head = null;
+		tail = null;
 		size = 0;
+		dropIndex();
 	}
 
 
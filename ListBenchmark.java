@@ -0,0 +1,180 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import project3.LinkedList;
+
+/**
+ * Benchmarks the public operations of project3.LinkedList next to
+ * java.util.ArrayList and java.util.LinkedList. The lists hold the keys of the
+ * stream in stream order.
+ *
+ * remove(Object) takes the key at a random position of the stream, so the search
+ * does not always stop at the head, and adds the removed key back at the tail so
+ * the size stays the same. remove(int) takes a random position and adds the removed
+ * element back the same way. The GetSequential benchmarks call get on each position in
+ * turn, as an indexed for loop would. linkedListIteratorRemove keeps the size the same too.
+ * The other operations leave the lists untouched apart from add, which is why the
+ * lists are rebuilt before every measurement iteration.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListBenchmark {
+
+	@Param({"1000", "10000", "100000", "1000000", "10000000"})
+	public int size;
+
+	@Param({"UNIFORM", "SORTED", "REVERSE_SORTED", "ZIPFIAN"})
+	public KeyStream stream;
+
+	private Integer[] keys;
+	private int[] indices;
+
+	private LinkedList<Integer> linkedList;
+	private ArrayList<Integer> arrayList;
+	private java.util.LinkedList<Integer> javaLinkedList;
+	private int cursor;
+
+	@Setup(Level.Trial)
+	public void generateKeys() {
+		keys = stream.boxed(size, 42);
+		indices = KeyStream.UNIFORM.generate(size, 7);
+	}
+
+	@Setup(Level.Iteration)
+	public void fill() {
+		linkedList = new LinkedList<Integer>();
+		arrayList = new ArrayList<Integer>(size);
+		javaLinkedList = new java.util.LinkedList<Integer>();
+		for(Integer key: keys) {
+			linkedList.add(key);
+			arrayList.add(key);
+			javaLinkedList.add(key);
+		}
+		cursor = 0;
+	}
+
+	/**
+	 * Moves to the next key of the stream, wrapping around at the end
+	 * @return position of the next key
+	 */
+	private int next() {
+		if(++cursor == size) {
+			cursor = 0;
+		}
+		return cursor;
+	}
+
+	@Benchmark
+	public boolean linkedListAdd() {
+		return linkedList.add(keys[next()]);
+	}
+
+	@Benchmark
+	public boolean arrayListAdd() {
+		return arrayList.add(keys[next()]);
+	}
+
+	@Benchmark
+	public boolean javaLinkedListAdd() {
+		return javaLinkedList.add(keys[next()]);
+	}
+
+	@Benchmark
+	public Integer linkedListGet() {
+		return linkedList.get(indices[next()]);
+	}
+
+	@Benchmark
+	public Integer arrayListGet() {
+		return arrayList.get(indices[next()]);
+	}
+
+	@Benchmark
+	public Integer javaLinkedListGet() {
+		return javaLinkedList.get(indices[next()]);
+	}
+
+	@Benchmark
+	public Integer linkedListGetSequential() {
+		return linkedList.get(next());
+	}
+
+	@Benchmark
+	public Integer javaLinkedListGetSequential() {
+		return javaLinkedList.get(next());
+	}
+
+	@Benchmark
+	public boolean linkedListRemoveAt() {
+		return linkedList.add(linkedList.remove(indices[next()]));
+	}
+
+	@Benchmark
+	public boolean javaLinkedListRemoveAt() {
+		return javaLinkedList.add(javaLinkedList.remove(indices[next()]));
+	}
+
+	@Benchmark
+	public boolean linkedListRemove() {
+		Integer key = keys[indices[next()]];
+		linkedList.remove(key);
+		return linkedList.add(key);
+	}
+
+	@Benchmark
+	public boolean arrayListRemove() {
+		Integer key = keys[indices[next()]];
+		arrayList.remove(key);
+		return arrayList.add(key);
+	}
+
+	@Benchmark
+	public boolean javaLinkedListRemove() {
+		Integer key = keys[indices[next()]];
+		javaLinkedList.remove(key);
+		return javaLinkedList.add(key);
+	}
+
+	/**
+	 * Removes every other element through the iterator, then adds them back
+	 * at the tail, so each call walks the whole list once
+	 * @return size of the list
+	 */
+	@Benchmark
+	public int linkedListIteratorRemove() {
+		Iterator<Integer> itr = linkedList.iterator();
+		int removed = 0;
+		while(itr.hasNext()) {
+			itr.next();
+			if(itr.hasNext()) {
+				itr.next();
+				itr.remove();
+				removed++;
+			}
+		}
+		for(int i = 0; i < removed; i++) {
+			linkedList.add(keys[i]);
+		}
+		return linkedList.size();
+	}
+}
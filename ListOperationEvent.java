@@ -0,0 +1,35 @@
+package project3;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * JDK Flight Recorder event for a slow operation on a LinkedList.
+ * The operation begins the event on entry and only fills it in and commits it
+ * if shouldCommit() says it ran past the threshold, so under normal latency
+ * or without a recording it costs a timestamp and nothing else.
+ * The threshold can be changed in the recording settings, for example
+ * project3.ListOperation#threshold=100 us.
+ */
+@Name("project3.ListOperation")
+@Label("List Operation")
+@Category({"Data Structures", "Lists"})
+@Description("Slow get, remove or sort on a LinkedList")
+@Threshold("1 ms")
+class ListOperationEvent extends Event {
+
+	@Label("Operation")
+	String operation;
+
+	@Label("Size")
+	@Description("Number of elements after the operation")
+	int size;
+
+	@Label("Visited")
+	@Description("Number of Nodes the operation visited")
+	long visited;
+}
@@ -0,0 +1,633 @@
+package project6;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class is a lock-free ordered set for write-heavy multi-threaded use,
+ * with the same methods as AVL.
+ * It is a skip list in the style of Herlihy and Shavit, "The Art of
+ * Multiprocessor Programming": every Node has a tower of next references that
+ * can be marked, and all changes are compareAndSet operations.
+ * remove first marks the Node's references from the top of its tower down, which
+ * removes it logically. Searches then unlink the marked Nodes they pass.
+ * contains and the navigation methods never write; they just skip marked Nodes.
+ * A marked reference is a Marked object wrapping the successor, so following an
+ * unmarked reference costs a single array load instead of going through an
+ * AtomicMarkableReference and its pair.
+ *
+ * Iterators, getRange and toString are weakly consistent: they never throw
+ * ConcurrentModificationException and return each element at most once, but may
+ * or may not see changes made while they run. size() is exact only while no
+ * other thread is writing, and get(int) walks the bottom level, so it is O(n).
+ *
+ * @param <E> generic element
+ */
+public class LockFreeSkipList <E> implements Iterable <E> {
+
+	//index of the highest level, towers have between 1 and MAX_LEVEL + 1 levels
+	private static final int MAX_LEVEL = 31;
+	//atomic access to the slots of a next array
+	private static final VarHandle NEXT = MethodHandles.arrayElementVarHandle(Object[].class);
+
+	/**
+	 * This class stores a Node of the skip list.
+	 * Holds the element and a tower of next references, each either a Node
+	 * or a Marked successor. The head and tail sentinels have a null element.
+	 *
+	 * @param <E> generic element
+	 */
+	private static class Node <E> {
+
+		private final E data;
+		private final Object[] next;
+
+		public Node(E e, int topLevel) {
+			data = e;
+			next = new Object[topLevel + 1];
+		}
+
+		/**
+		 * Gets the index of the highest level of the tower
+		 * @return top level
+		 */
+		public int topLevel() {
+			return next.length - 1;
+		}
+	}
+
+	/**
+	 * A marked next reference: the Node holding it has been removed at that level
+	 */
+	private static final class Marked {
+
+		private final Node<?> node;
+
+		public Marked(Node<?> node) {
+			this.node = node;
+		}
+	}
+
+	private final Node<E> head = new Node<E>(null, MAX_LEVEL);
+	private final Node<E> tail = new Node<E>(null, MAX_LEVEL);
+	private final LongAdder count = new LongAdder();
+	//highest level any tower has reached, searches start here
+	private final AtomicInteger levels = new AtomicInteger();
+	//null when the natural ordering is used
+	private final Comparator<? super E> comparator;
+
+	public LockFreeSkipList() {
+		this(null);
+	}
+
+	/**
+	 * Creates an empty LockFreeSkipList ordered by the given Comparator
+	 * @param comparator ordering of the elements, null for natural ordering
+	 */
+	public LockFreeSkipList(Comparator<? super E> comparator) {
+		this.comparator = comparator;
+		for(int level = 0; level <= MAX_LEVEL; level++) {
+			head.next[level] = tail;
+		}
+	}
+
+	/**
+	 * Reads a next reference
+	 * @param node Node holding the reference
+	 * @param level level of the reference
+	 * @return a Node, a Marked successor, or null past the tail
+	 */
+	private static Object ref(Node<?> node, int level) {
+		return NEXT.getVolatile(node.next, level);
+	}
+
+	/**
+	 * Gets the successor a next reference points to, marked or not
+	 * @param ref next reference
+	 * @return successor Node
+	 */
+	@SuppressWarnings("unchecked")
+	private static <E> Node<E> target(Object ref) {
+		return ref instanceof Marked ? (Node<E>) ((Marked) ref).node : (Node<E>) ref;
+	}
+
+	/**
+	 * Swings an unmarked next reference from one Node to another
+	 * @param node Node holding the reference
+	 * @param level level of the reference
+	 * @param expected Node the reference should point to
+	 * @param update new successor
+	 * @return whether the reference was unmarked and pointed to expected
+	 */
+	private static boolean casNext(Node<?> node, int level, Node<?> expected, Node<?> update) {
+		return NEXT.compareAndSet(node.next, level, expected, update);
+	}
+
+	/**
+	 * Marks a next reference
+	 * @param node Node holding the reference
+	 * @param level level of the reference
+	 * @return whether this call marked it, false if it was already marked
+	 */
+	private static boolean mark(Node<?> node, int level) {
+		while(true) {
+			Object ref = ref(node, level);
+			if(ref instanceof Marked) {
+				return false;
+			}
+			if(NEXT.compareAndSet(node.next, level, ref, new Marked((Node<?>) ref))) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Compares two elements with the Comparator, or with their natural ordering
+	 * @param a first element
+	 * @param b second element
+	 * @return negative, zero or positive as a is less than, equal to or greater than b
+	 */
+	@SuppressWarnings("unchecked")
+	private int compare(E a, E b) {
+		if(comparator != null) {
+			return comparator.compare(a, b);
+		}
+		return ((Comparable<? super E>) a).compareTo(b);
+	}
+
+	/**
+	 * Checks whether the Node comes before the element. The tail comes after everything.
+	 * @param node Node other than the head
+	 * @param e element
+	 * @return whether node's element is less than e
+	 */
+	private boolean before(Node<E> node, E e) {
+		return node != tail && compare(node.data, e) < 0;
+	}
+
+	/**
+	 * Checks whether the Node holds the element
+	 * @param node Node other than the head
+	 * @param e element
+	 * @return whether node's element equals e
+	 */
+	private boolean holds(Node<E> node, E e) {
+		return node != tail && compare(node.data, e) == 0;
+	}
+
+	/**
+	 * Picks the height of a new tower, level k with probability 2^-(k+1)
+	 * @return top level of the tower
+	 */
+	private static int randomLevel() {
+		return Integer.numberOfTrailingZeros(ThreadLocalRandom.current().nextInt() | (1 << MAX_LEVEL));
+	}
+
+	/**
+	 * Finds, at every level, the last Node before e and the first Node at or after e,
+	 * unlinking any marked Node on the way. Starts over if another thread changes a
+	 * reference it is about to unlink.
+	 * @param e element
+	 * @param preds receives the last Node before e at each level
+	 * @param succs receives the first Node at or after e at each level
+	 * @return whether e is in the set
+	 */
+	private boolean find(E e, Node<E>[] preds, Node<E>[] succs) {
+		retry:
+		while(true) {
+			Node<E> pred = head;
+			Node<E> current = null;
+			for(int level = levels.get(); level >= 0; level--) {
+				current = target(ref(pred, level));
+				while(true) {
+					Object succ = ref(current, level);
+					//unlink marked Nodes
+					while(succ instanceof Marked) {
+						Node<E> next = target(succ);
+						if(!casNext(pred, level, current, next)) {
+							continue retry;
+						}
+						current = next;
+						succ = ref(current, level);
+					}
+					if(before(current, e)) {
+						pred = current;
+						current = target(succ);
+					}
+					else {
+						break;
+					}
+				}
+				preds[level] = pred;
+				succs[level] = current;
+			}
+			return holds(current, e);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Node<E>[] newTower() {
+		return (Node<E>[]) new Node[MAX_LEVEL + 1];
+	}
+
+	/**
+	 * Adds the element. It is in the set once it is linked at the bottom level,
+	 * the higher levels are linked afterwards.
+	 * @param e element being added
+	 * @return whether element has been added or not
+	 * @throws NullPointerException when element is null
+	 */
+	public boolean add(E e) throws NullPointerException {
+		if(e == null) {
+			throw new NullPointerException("element is null");
+		}
+		int topLevel = randomLevel();
+		if(topLevel > levels.get()) {
+			levels.accumulateAndGet(topLevel, Math::max);
+		}
+		Node<E>[] preds = newTower();
+		Node<E>[] succs = newTower();
+
+		while(true) {
+			if(find(e, preds, succs)) {
+				return false;
+			}
+			Node<E> node = new Node<E>(e, topLevel);
+			for(int level = 0; level <= topLevel; level++) {
+				node.next[level] = succs[level];
+			}
+			if(!casNext(preds[0], 0, succs[0], node)) {
+				continue;
+			}
+			count.increment();
+
+			for(int level = 1; level <= topLevel; level++) {
+				while(true) {
+					Node<E> succ = succs[level];
+					Object oldSucc = ref(node, level);
+					//already being removed
+					if(oldSucc instanceof Marked) {
+						return true;
+					}
+					//point past Nodes added since the last find
+					if(oldSucc != succ && !casNext(node, level, (Node<?>) oldSucc, succ)) {
+						return true;
+					}
+					if(casNext(preds[level], level, succ, node)) {
+						break;
+					}
+					if(!find(e, preds, succs) || succs[0] != node) {
+						//removed by another thread in the meantime
+						return true;
+					}
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Adds all of the elements in the specified collection
+	 * @param collection to be added
+	 * @return whether the set has changed or not
+	 * @throws NullPointerException if collection is null or if any of its elements are null
+	 */
+	public boolean addAll(Collection<? extends E> collection) throws NullPointerException {
+		if(collection == null) {
+			throw new NullPointerException("Collection is null");
+		}
+		boolean changed = false;
+		for(E e: collection) {
+			changed |= add(e);
+		}
+		return changed;
+	}
+
+	/**
+	 * Removes the element. Whichever thread marks the bottom reference removes it.
+	 * @param o element being removed
+	 * @return whether element has been found and removed by this call or not
+	 * @throws NullPointerException when element is null
+	 */
+	@SuppressWarnings("unchecked")
+	public boolean remove(Object o) throws NullPointerException, ClassCastException {
+		if(o == null) {
+			throw new NullPointerException("Specified element is null");
+		}
+		E e = (E) o;
+		Node<E>[] preds = newTower();
+		Node<E>[] succs = newTower();
+
+		if(!find(e, preds, succs)) {
+			return false;
+		}
+		Node<E> node = succs[0];
+		for(int level = node.topLevel(); level >= 1; level--) {
+			mark(node, level);
+		}
+		if(mark(node, 0)) {
+			count.decrement();
+			//unlink it
+			find(e, preds, succs);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Removes every element present when each is reached
+	 */
+	public void clear() {
+		for(E e: this) {
+			remove(e);
+		}
+	}
+
+	/**
+	 * Walks down to the last unmarked Node before e without writing anything
+	 * @param e element, or null for the last Node of the set
+	 * @return last Node before e, or the head if there is none
+	 */
+	private Node<E> predecessor(E e) {
+		Node<E> pred = head;
+		for(int level = levels.get(); level >= 0; level--) {
+			Node<E> current = target(ref(pred, level));
+			while(true) {
+				Object succ = ref(current, level);
+				//skip marked Nodes
+				while(succ instanceof Marked) {
+					current = target(succ);
+					succ = ref(current, level);
+				}
+				if(current != tail && (e == null || compare(current.data, e) < 0)) {
+					pred = current;
+					current = target(succ);
+				}
+				else {
+					break;
+				}
+			}
+		}
+		return pred;
+	}
+
+	/**
+	 * Gets the first unmarked Node after the given Node at the bottom level
+	 * @param node Node to start after
+	 * @return next unmarked Node, or the tail
+	 */
+	private Node<E> successor(Node<E> node) {
+		Node<E> current = target(ref(node, 0));
+		while(current != tail) {
+			Object succ = ref(current, 0);
+			if(!(succ instanceof Marked)) {
+				return current;
+			}
+			current = target(succ);
+		}
+		return tail;
+	}
+
+	/**
+	 * Gets the first unmarked Node at or after e. predecessor(e) only bounds it:
+	 * Nodes added between its result and e during the descent are reached by
+	 * walking on along the bottom level, which is what keeps every method
+	 * below from stopping at an element less than e.
+	 * @param pred unmarked Node before e, or the head
+	 * @param e element
+	 * @return first unmarked Node at or after e, or the tail
+	 */
+	private Node<E> ceilingNode(Node<E> pred, E e) {
+		Node<E> current = successor(pred);
+		while(before(current, e)) {
+			current = successor(current);
+		}
+		return current;
+	}
+
+	/**
+	 * Checks whether given object exists in the set, without writing anything
+	 * @param o Object being searched for
+	 * @return whether object exists or not
+	 */
+	@SuppressWarnings("unchecked")
+	public boolean contains(Object o) throws NullPointerException, ClassCastException {
+		if(o == null) {
+			throw new NullPointerException("Null parameter");
+		}
+		E e = (E) o;
+		return holds(ceilingNode(predecessor(e), e), e);
+	}
+
+	/**
+	 * Returns lowest (smallest) element
+	 * @return lowest element
+	 * @throws NoSuchElementException if empty
+	 */
+	public E first() throws NoSuchElementException {
+		Node<E> first = successor(head);
+		if(first == tail) {
+			throw new NoSuchElementException("Set is empty");
+		}
+		return first.data;
+	}
+
+	/**
+	 * Returns largest element
+	 * @return largest element
+	 * @throws NoSuchElementException if empty
+	 */
+	public E last() throws NoSuchElementException {
+		Node<E> last = predecessor(null);
+		if(last == head) {
+			throw new NoSuchElementException("Set is empty");
+		}
+		return last.data;
+	}
+
+	/**
+	 * Returns the largest element less than or equal to e, or null if there is none
+	 * @param e element
+	 * @return largest element less than or equal to e
+	 */
+	public E floor(E e) throws NullPointerException, ClassCastException {
+		if(e == null) {
+			throw new NullPointerException("Null argument");
+		}
+		Node<E> pred = predecessor(e);
+		Node<E> current = successor(pred);
+		//walks like ceilingNode, keeping the last Node before e
+		while(before(current, e)) {
+			pred = current;
+			current = successor(current);
+		}
+		if(holds(current, e)) {
+			return current.data;
+		}
+		return pred == head ? null : pred.data;
+	}
+
+	/**
+	 * Returns the least element greater than or equal to e, or null if there is none
+	 * @param e element
+	 * @return least element greater than or equal to e
+	 */
+	public E ceiling(E e) throws NullPointerException, ClassCastException {
+		if(e == null) {
+			throw new NullPointerException("Null argument");
+		}
+		Node<E> current = ceilingNode(predecessor(e), e);
+		return current == tail ? null : current.data;
+	}
+
+	/**
+	 * Returns the least element strictly greater than e, or null if there is none
+	 * @param e element
+	 * @return least element greater than e
+	 */
+	public E higher(E e) throws NullPointerException, ClassCastException {
+		if(e == null) {
+			throw new NullPointerException("Null argument");
+		}
+		Node<E> current = ceilingNode(predecessor(e), e);
+		if(holds(current, e)) {
+			current = successor(current);
+		}
+		return current == tail ? null : current.data;
+	}
+
+	/**
+	 * Returns the largest element strictly less than e, or null if there is none
+	 * @param e element
+	 * @return largest element less than e
+	 */
+	public E lower(E e) throws NullPointerException, ClassCastException {
+		if(e == null) {
+			throw new NullPointerException("Null argument");
+		}
+		Node<E> pred = predecessor(e);
+		return pred == head ? null : pred.data;
+	}
+
+	/**
+	 * Gets the element at the given index in sorted order by walking the bottom level, O(n)
+	 * @param index index of the element
+	 * @return element at given index
+	 * @throws IndexOutOfBoundsException
+	 */
+	public E get(int index) throws IndexOutOfBoundsException {
+		if(index < 0) {
+			throw new IndexOutOfBoundsException("Index out of bounds");
+		}
+		Node<E> current = successor(head);
+		for(int i = 0; i < index && current != tail; i++) {
+			current = successor(current);
+		}
+		if(current == tail) {
+			throw new IndexOutOfBoundsException("Index out of bounds");
+		}
+		return current.data;
+	}
+
+	/**
+	 * Returns an ArrayList of all the elements within the range [fromElement, toElement], inclusive.
+	 * Weakly consistent.
+	 * @param fromElement lower bound
+	 * @param toElement upper bound
+	 * @return ArrayList of type E containing elements within the range
+	 * @throws NullPointerException
+	 * @throws IllegalArgumentException
+	 */
+	public ArrayList<E> getRange(E fromElement, E toElement) throws NullPointerException, IllegalArgumentException {
+		if(fromElement == null || toElement == null) {
+			throw new NullPointerException("Parameters can not be null");
+		}
+		if(compare(fromElement, toElement) > 0) {
+			throw new IllegalArgumentException("fromElement can not be greater than toElement");
+		}
+		ArrayList<E> list = new ArrayList<E>();
+		Node<E> current = ceilingNode(predecessor(fromElement), fromElement);
+		while(current != tail && compare(current.data, toElement) <= 0) {
+			list.add(current.data);
+			current = successor(current);
+		}
+		return list;
+	}
+
+	/**
+	 * Returns how many elements are in the set. Only exact while no other thread is writing.
+	 * @return size
+	 */
+	public int size() {
+		return (int) Math.max(0, count.sum());
+	}
+
+	/**
+	 * Returns true if the set has no elements
+	 * @return whether the set is empty
+	 */
+	public boolean isEmpty() {
+		return successor(head) == tail;
+	}
+
+	/**
+	 * Returns a weakly consistent iterator in sorted order. remove() removes
+	 * the last returned element from the set.
+	 * @return inOrder Iterator
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+			private Node<E> next = successor(head);
+			private E lastReturned;
+
+			@Override
+			public boolean hasNext() {
+				return next != tail;
+			}
+
+			@Override
+			public E next() throws NoSuchElementException {
+				if(next == tail) {
+					throw new NoSuchElementException("No next element");
+				}
+				lastReturned = next.data;
+				next = successor(next);
+				return lastReturned;
+			}
+
+			@Override
+			public void remove() throws IllegalStateException {
+				if(lastReturned == null) {
+					throw new IllegalStateException("next has not been called");
+				}
+				LockFreeSkipList.this.remove(lastReturned);
+				lastReturned = null;
+			}
+		};
+	}
+
+	/**
+	 * Returns a String representation of the set in order, weakly consistent
+	 * @return String Array representation
+	 */
+	@Override
+	public String toString() {
+		StringBuilder str = new StringBuilder("[");
+		for(E e: this) {
+			if(str.length() > 1) {
+				str.append(", ");
+			}
+			str.append(e);
+		}
+		return str.append("]").toString();
+	}
+}
@@ -0,0 +1,736 @@
+package project6;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * This class is an AVL tree that keeps its Nodes outside of the Java heap.
+ * Each Node is a fixed-size record in a direct ByteBuffer: left and right child
+ * index, subtree size, height and the key, encoded in a fixed number of bytes
+ * by a KeyCodec. The records are spread over chunks of CHUNK_NODES records each,
+ * so the tree is not limited to the 2GB of a single buffer and never moves the
+ * records it already has when it grows.
+ * Record 0 is a sentinel for the missing child with size 0 and height 0.
+ * Removed records are kept on a free list, chained through their left index,
+ * and reused by later adds.
+ *
+ * Answers every query exactly like AVL ordered by the codec. close() drops the
+ * buffers, after which every method throws an IllegalStateException. The native
+ * memory is handed back once the buffers are collected, since the JDK has no way
+ * to free a direct buffer explicitly.
+ *
+ * @param <E> generic element
+ */
+public class OffHeapAVL <E> implements AutoCloseable {
+
+	/**
+	 * Encodes keys into a fixed number of bytes and compares encoded keys
+	 * with keys on the heap, in the order the tree keeps them
+	 * @param <E> type of key
+	 */
+	public interface KeyCodec <E> {
+
+		/**
+		 * Returns the number of bytes of every encoded key
+		 * @return width in bytes
+		 */
+		int width();
+
+		/**
+		 * Writes the key at the given position
+		 * @param buffer buffer being written
+		 * @param offset position of the first byte
+		 * @param key key being written
+		 */
+		void write(ByteBuffer buffer, int offset, E key);
+
+		/**
+		 * Reads the key at the given position
+		 * @param buffer buffer being read
+		 * @param offset position of the first byte
+		 * @return decoded key
+		 */
+		E read(ByteBuffer buffer, int offset);
+
+		/**
+		 * Compares the encoded key at the given position with a key
+		 * @param buffer buffer being read
+		 * @param offset position of the first byte
+		 * @param key key being compared against
+		 * @return negative, zero or positive as the encoded key is less than, equal to or greater than key
+		 */
+		int compare(ByteBuffer buffer, int offset, E key);
+	}
+
+	/**
+	 * Codec for Long keys in their natural order
+	 */
+	public static final KeyCodec<Long> LONG_KEYS = new KeyCodec<Long>() {
+		public int width() {
+			return Long.BYTES;
+		}
+		public void write(ByteBuffer buffer, int offset, Long key) {
+			buffer.putLong(offset, key);
+		}
+		public Long read(ByteBuffer buffer, int offset) {
+			return buffer.getLong(offset);
+		}
+		public int compare(ByteBuffer buffer, int offset, Long key) {
+			return Long.compare(buffer.getLong(offset), key);
+		}
+	};
+
+	/**
+	 * Codec for Integer keys in their natural order
+	 */
+	public static final KeyCodec<Integer> INT_KEYS = new KeyCodec<Integer>() {
+		public int width() {
+			return Integer.BYTES;
+		}
+		public void write(ByteBuffer buffer, int offset, Integer key) {
+			buffer.putInt(offset, key);
+		}
+		public Integer read(ByteBuffer buffer, int offset) {
+			return buffer.getInt(offset);
+		}
+		public int compare(ByteBuffer buffer, int offset, Integer key) {
+			return Integer.compare(buffer.getInt(offset), key);
+		}
+	};
+
+	private static final int NIL = 0;
+	private static final int CHUNK_SHIFT = 16;
+	private static final int CHUNK_NODES = 1 << CHUNK_SHIFT;
+	private static final int CHUNK_MASK = CHUNK_NODES - 1;
+
+	//offsets of the fields inside a record
+	private static final int LEFT = 0;
+	private static final int RIGHT = 4;
+	private static final int SIZE = 8;
+	private static final int HEIGHT = 12;
+	private static final int KEY = 16;
+
+	private final KeyCodec<E> codec;
+	private final int recordSize;
+	private ByteBuffer[] chunks;
+
+	private int root;
+	private int count;
+	//first record that has never been used
+	private int next;
+	//head of the list of removed records
+	private int free;
+
+	/**
+	 * Creates an empty OffHeapAVL
+	 * @param codec encoding and ordering of the keys
+	 * @throws NullPointerException if codec is null
+	 */
+	public OffHeapAVL(KeyCodec<E> codec) throws NullPointerException {
+		if(codec == null) {
+			throw new NullPointerException("Null codec");
+		}
+		this.codec = codec;
+		recordSize = KEY + codec.width();
+		init();
+	}
+
+	/**
+	 * Allocates the first chunk, which holds the sentinel
+	 */
+	private void init() {
+		chunks = new ByteBuffer[] { allocateChunk() };
+		root = NIL;
+		count = 0;
+		next = 1;
+		free = NIL;
+	}
+
+	/**
+	 * Allocates a zeroed chunk of records in native memory
+	 * @return new chunk
+	 */
+	private ByteBuffer allocateChunk() {
+		return ByteBuffer.allocateDirect(CHUNK_NODES * recordSize).order(ByteOrder.nativeOrder());
+	}
+
+	/**
+	 * Makes sure the tree has not been closed
+	 * @throws IllegalStateException after close()
+	 */
+	private void ensureOpen() throws IllegalStateException {
+		if(chunks == null) {
+			throw new IllegalStateException("Tree is closed");
+		}
+	}
+
+	private ByteBuffer chunk(int node) {
+		return chunks[node >>> CHUNK_SHIFT];
+	}
+
+	private int offset(int node) {
+		return (node & CHUNK_MASK) * recordSize;
+	}
+
+	private int left(int node) {
+		return chunk(node).getInt(offset(node) + LEFT);
+	}
+
+	private int right(int node) {
+		return chunk(node).getInt(offset(node) + RIGHT);
+	}
+
+	private int size(int node) {
+		return chunk(node).getInt(offset(node) + SIZE);
+	}
+
+	private int height(int node) {
+		return chunk(node).getInt(offset(node) + HEIGHT);
+	}
+
+	private void setLeft(int node, int child) {
+		chunk(node).putInt(offset(node) + LEFT, child);
+	}
+
+	private void setRight(int node, int child) {
+		chunk(node).putInt(offset(node) + RIGHT, child);
+	}
+
+	/**
+	 * Compares the key of a record with a key
+	 * @param node index of the record
+	 * @param key key being compared against
+	 * @return negative, zero or positive as the record's key is less than, equal to or greater than key
+	 */
+	private int compare(int node, E key) {
+		return codec.compare(chunk(node), offset(node) + KEY, key);
+	}
+
+	/**
+	 * Decodes the key of a record
+	 * @param node index of the record
+	 * @return key on the heap
+	 */
+	private E key(int node) {
+		return codec.read(chunk(node), offset(node) + KEY);
+	}
+
+	/**
+	 * Takes a record off the free list, or the next unused record,
+	 * allocating a new chunk when the last one is full
+	 * @param key key of the record
+	 * @return index of the new record
+	 */
+	private int newNode(E key) {
+		int node;
+		if(free != NIL) {
+			node = free;
+			free = left(node);
+		}
+		else {
+			if(next < 0) {
+				throw new IllegalStateException("Tree is full");
+			}
+			node = next++;
+			int chunk = node >>> CHUNK_SHIFT;
+			if(chunk == chunks.length) {
+				chunks = Arrays.copyOf(chunks, chunks.length + 1);
+				chunks[chunk] = allocateChunk();
+			}
+		}
+		ByteBuffer buffer = chunk(node);
+		int offset = offset(node);
+		buffer.putInt(offset + LEFT, NIL);
+		buffer.putInt(offset + RIGHT, NIL);
+		buffer.putInt(offset + SIZE, 1);
+		buffer.putInt(offset + HEIGHT, 1);
+		codec.write(buffer, offset + KEY, key);
+		return node;
+	}
+
+	/**
+	 * Puts a removed record on the free list
+	 * @param node index of the record
+	 */
+	private void release(int node) {
+		setLeft(node, free);
+		setRight(node, NIL);
+		free = node;
+	}
+
+	/**
+	 * Adds the element to the OffHeapAVL
+	 * @param e element being added
+	 * @return whether element has been added or not
+	 * @throws NullPointerException when element is null
+	 */
+	public boolean add(E e) throws NullPointerException {
+		ensureOpen();
+		if(e == null) {
+			throw new NullPointerException("element is null");
+		}
+		int oldCount = count;
+		root = add(root, e);
+		return oldCount != count;
+	}
+
+	/**
+	 * Recursively adds the element below the given record and rebalances on the way up
+	 * @param node root of the subtree
+	 * @param e element being added
+	 * @return new root of the subtree
+	 */
+	private int add(int node, E e) {
+		if(node == NIL) {
+			count++;
+			return newNode(e);
+		}
+		int cmp = compare(node, e);
+		if(cmp > 0) {
+			setLeft(node, add(left(node), e));
+		}
+		else if(cmp < 0) {
+			setRight(node, add(right(node), e));
+		}
+		else {
+			return node;
+		}
+		return rebalance(node);
+	}
+
+	/**
+	 * Adds all of the elements in the specified collection to this tree.
+	 * @param collection to be added
+	 * @return whether the tree has changed or not
+	 * @throws NullPointerException if collection is null or if any of its elements are null
+	 */
+	public boolean addAll(Iterable<? extends E> collection) throws NullPointerException {
+		if(collection == null) {
+			throw new NullPointerException("Collection is null");
+		}
+		int oldCount = count;
+		for(E e: collection) {
+			add(e);
+		}
+		return oldCount != count;
+	}
+
+	/**
+	 * Removes the element from the OffHeapAVL
+	 * @param e element being removed
+	 * @return whether element has been found and removed or not
+	 * @throws NullPointerException when element is null
+	 */
+	public boolean remove(E e) throws NullPointerException {
+		ensureOpen();
+		if(e == null) {
+			throw new NullPointerException("Specified element is null");
+		}
+		int oldCount = count;
+		root = remove(root, e);
+		return oldCount != count;
+	}
+
+	/**
+	 * Recursively removes the element below the given record and rebalances on the way up.
+	 * A record with two children takes the key of its predecessor instead.
+	 * @param node root of the subtree
+	 * @param e element being removed
+	 * @return new root of the subtree
+	 */
+	private int remove(int node, E e) {
+		if(node == NIL) {
+			return NIL;
+		}
+		int cmp = compare(node, e);
+		if(cmp > 0) {
+			setLeft(node, remove(left(node), e));
+		}
+		else if(cmp < 0) {
+			setRight(node, remove(right(node), e));
+		}
+		else {
+			count--;
+			if(left(node) == NIL || right(node) == NIL) {
+				int child = left(node) != NIL ? left(node) : right(node);
+				release(node);
+				return child;
+			}
+			int predecessor = left(node);
+			while(right(predecessor) != NIL) {
+				predecessor = right(predecessor);
+			}
+			//copy the predecessor's key bytes over this record's key
+			chunk(node).put(offset(node) + KEY, chunk(predecessor), offset(predecessor) + KEY, codec.width());
+			setLeft(node, removeLast(left(node)));
+		}
+		return rebalance(node);
+	}
+
+	/**
+	 * Removes the largest record of the subtree
+	 * @param node root of the subtree
+	 * @return new root of the subtree
+	 */
+	private int removeLast(int node) {
+		if(right(node) == NIL) {
+			int child = left(node);
+			release(node);
+			return child;
+		}
+		setRight(node, removeLast(right(node)));
+		return rebalance(node);
+	}
+
+	/**
+	 * Recomputes the size and height of a record from its children
+	 * @param node index of the record
+	 */
+	private void update(int node) {
+		int left = left(node);
+		int right = right(node);
+		ByteBuffer buffer = chunk(node);
+		int offset = offset(node);
+		buffer.putInt(offset + SIZE, size(left) + size(right) + 1);
+		buffer.putInt(offset + HEIGHT, Math.max(height(left), height(right)) + 1);
+	}
+
+	/**
+	 * Updates the record and rotates it if it is out of balance
+	 * @param node index of the record
+	 * @return root of the balanced subtree
+	 */
+	private int rebalance(int node) {
+		update(node);
+		int balance = height(right(node)) - height(left(node));
+
+		//right height is more than 1 greater than left height
+		if(balance > 1) {
+			int child = right(node);
+			if(height(left(child)) > height(right(child))) {
+				return balanceRL(node);
+			}
+			return balanceRR(node);
+		}
+		else if(balance < -1) {
+			int child = left(node);
+			if(height(right(child)) > height(left(child))) {
+				return balanceLR(node);
+			}
+			return balanceLL(node);
+		}
+		return node;
+	}
+
+	/**
+	 * Performs single right rotation for a left-left imbalance
+	 * @param a unbalanced record
+	 * @return root of balanced tree
+	 */
+	private int balanceLL(int a) {
+		int b = left(a);
+		setLeft(a, right(b));
+		setRight(b, a);
+		update(a);
+		update(b);
+		return b;
+	}
+
+	/**
+	 * Performs single left rotation for a right-right imbalance
+	 * @param a unbalanced record
+	 * @return root of balanced tree
+	 */
+	private int balanceRR(int a) {
+		int b = right(a);
+		setRight(a, left(b));
+		setLeft(b, a);
+		update(a);
+		update(b);
+		return b;
+	}
+
+	/**
+	 * Performs double left-right rotation
+	 * @param a unbalanced record
+	 * @return root of balanced tree
+	 */
+	private int balanceLR(int a) {
+		setLeft(a, balanceRR(left(a)));
+		return balanceLL(a);
+	}
+
+	/**
+	 * Performs double right-left rotation
+	 * @param a unbalanced record
+	 * @return root of balanced tree
+	 */
+	private int balanceRL(int a) {
+		setRight(a, balanceLL(right(a)));
+		return balanceRR(a);
+	}
+
+	/**
+	 * Checks whether given element exists in the tree
+	 * @param e element being searched for
+	 * @return whether element exists or not
+	 * @throws NullPointerException when element is null
+	 */
+	public boolean contains(E e) throws NullPointerException {
+		ensureOpen();
+		if(e == null) {
+			throw new NullPointerException("Null parameter");
+		}
+		int node = root;
+		while(node != NIL) {
+			int cmp = compare(node, e);
+			if(cmp == 0) {
+				return true;
+			}
+			node = cmp > 0 ? left(node) : right(node);
+		}
+		return false;
+	}
+
+	/**
+	 * Returns lowest (smallest) element
+	 * @return lowest element
+	 * @throws NoSuchElementException if the tree is empty
+	 */
+	public E first() throws NoSuchElementException {
+		ensureOpen();
+		if(root == NIL) {
+			throw new NoSuchElementException("Set is empty");
+		}
+		int node = root;
+		while(left(node) != NIL) {
+			node = left(node);
+		}
+		return key(node);
+	}
+
+	/**
+	 * Returns largest element
+	 * @return largest element
+	 * @throws NoSuchElementException if the tree is empty
+	 */
+	public E last() throws NoSuchElementException {
+		ensureOpen();
+		if(root == NIL) {
+			throw new NoSuchElementException("Set is empty");
+		}
+		int node = root;
+		while(right(node) != NIL) {
+			node = right(node);
+		}
+		return key(node);
+	}
+
+	/**
+	 * Returns the largest element less than or equal to e
+	 * or null if there is no such element
+	 * @param e element
+	 * @return largest element less than or equal to e
+	 */
+	public E floor(E e) {
+		return nearest(e, true, true);
+	}
+
+	/**
+	 * Returns the least element greater than or equal to e
+	 * or null if there is no such element
+	 * @param e element
+	 * @return least element greater than or equal to e
+	 */
+	public E ceiling(E e) {
+		return nearest(e, false, true);
+	}
+
+	/**
+	 * Returns the least element strictly greater than e
+	 * or null if there is no such element
+	 * @param e element
+	 * @return least element greater than e
+	 */
+	public E higher(E e) {
+		return nearest(e, false, false);
+	}
+
+	/**
+	 * Returns the largest element strictly less than e
+	 * or null if there is no such element
+	 * @param e element
+	 * @return largest element less than e
+	 */
+	public E lower(E e) {
+		return nearest(e, true, false);
+	}
+
+	/**
+	 * Finds the closest element below or above e in a single descent
+	 * @param e element
+	 * @param below whether the element searched for is below e
+	 * @param inclusive whether e itself counts
+	 * @return closest element, or null if there is none
+	 * @throws NullPointerException when element is null
+	 */
+	private E nearest(E e, boolean below, boolean inclusive) throws NullPointerException {
+		ensureOpen();
+		if(e == null) {
+			throw new NullPointerException("Null argument");
+		}
+		int node = root;
+		int found = NIL;
+		while(node != NIL) {
+			int cmp = compare(node, e);
+			if(cmp == 0 && inclusive) {
+				return key(node);
+			}
+			if(below ? cmp < 0 : cmp > 0) {
+				found = node;
+				node = below ? right(node) : left(node);
+			}
+			else {
+				node = below ? left(node) : right(node);
+			}
+		}
+		return found == NIL ? null : key(found);
+	}
+
+	/**
+	 * Gets the element at the given index in sorted order in O(log n) time
+	 * @param index index of the element
+	 * @return element at given index
+	 * @throws IndexOutOfBoundsException
+	 */
+	public E get(int index) throws IndexOutOfBoundsException {
+		ensureOpen();
+		if(index < 0 || index >= count) {
+			throw new IndexOutOfBoundsException("Index out of bounds");
+		}
+		int node = root;
+		while(true) {
+			int leftSize = size(left(node));
+			if(index < leftSize) {
+				node = left(node);
+			}
+			else if(index > leftSize) {
+				index -= leftSize + 1;
+				node = right(node);
+			}
+			else {
+				return key(node);
+			}
+		}
+	}
+
+	/**
+	 * Returns an ArrayList containing all the elements
+	 * within the given range [fromElement, toElement], inclusive
+	 * @param fromElement lower bound
+	 * @param toElement upper bound
+	 * @return ArrayList of type E containing elements within the range
+	 * @throws NullPointerException
+	 * @throws IllegalArgumentException
+	 */
+	public ArrayList<E> getRange(E fromElement, E toElement) throws NullPointerException, IllegalArgumentException {
+		ensureOpen();
+		if(fromElement == null || toElement == null) {
+			throw new NullPointerException("Parameters can not be null");
+		}
+		ArrayList<E> list = new ArrayList<E>();
+		if(root == NIL) {
+			return list;
+		}
+		//compare the bounds through an encoded copy of fromElement
+		ByteBuffer scratch = ByteBuffer.allocate(codec.width()).order(ByteOrder.nativeOrder());
+		codec.write(scratch, 0, fromElement);
+		if(codec.compare(scratch, 0, toElement) > 0) {
+			throw new IllegalArgumentException("fromElement can not be greater than toElement");
+		}
+		rangeTraverse(root, fromElement, toElement, list);
+		return list;
+	}
+
+	/**
+	 * Adds the elements of the subtree within the range to the list in order
+	 * @param node root of the subtree
+	 * @param fromElement lower bound
+	 * @param toElement upper bound
+	 * @param list being added to
+	 */
+	private void rangeTraverse(int node, E fromElement, E toElement, ArrayList<E> list) {
+		while(node != NIL) {
+			if(compare(node, fromElement) < 0) {
+				node = right(node);
+			}
+			else if(compare(node, toElement) > 0) {
+				node = left(node);
+			}
+			else {
+				rangeTraverse(left(node), fromElement, toElement, list);
+				list.add(key(node));
+				node = right(node);
+			}
+		}
+	}
+
+	/**
+	 * Gets the height of the tree
+	 * @return height
+	 */
+	public int height() {
+		ensureOpen();
+		return height(root);
+	}
+
+	/**
+	 * Returns the number of elements in the tree
+	 * @return size
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Returns true if the tree is empty, false if it is not
+	 * @return size == 0
+	 */
+	public boolean isEmpty() {
+		return count == 0;
+	}
+
+	/**
+	 * Removes every element and gives up every chunk but the first one
+	 */
+	public void clear() {
+		ensureOpen();
+		init();
+	}
+
+	/**
+	 * Drops the native buffers. Any later call throws an IllegalStateException,
+	 * apart from close itself, size and isEmpty.
+	 */
+	@Override
+	public void close() {
+		chunks = null;
+		root = NIL;
+		count = 0;
+	}
+
+	/**
+	 * Returns a String representation of the tree in order
+	 * @return String Array representation of the tree
+	 */
+	@Override
+	public String toString() {
+		if(root == NIL) {
+			return "[]";
+		}
+		return getRange(first(), last()).toString();
+	}
+}
@@ -0,0 +1,555 @@
+package project6;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This class is an AVL tree whose Nodes are never modified once created.
+ * add and remove copy only the Nodes on the path they change, O(log n) of them,
+ * and share every other subtree with the previous version. A version is
+ * therefore nothing more than its root, which makes snapshot() O(1): the
+ * snapshot keeps reading its own version, including iteration, get(int) and
+ * getRange, while this tree moves on.
+ *
+ * Writers on the same PersistentAVL are serialized. Readers never lock: the
+ * root is volatile, so every read sees one complete version. An iterator keeps
+ * walking the version it was created from, so it never throws a
+ * ConcurrentModificationException.
+ *
+ * @param <E> generic element
+ */
+public class PersistentAVL <E> implements Iterable <E> {
+
+	/**
+	 * This class stores an immutable Node. Stores its height and the size
+	 * of its subtree, which makes get(index) O(log n).
+	 *
+	 * @param <E> generic element
+	 */
+	private static final class Node <E> {
+
+		private final E data;
+		private final Node<E> left;
+		private final Node<E> right;
+		private final int height;
+		private final int size;
+
+		public Node(E data, Node<E> left, Node<E> right) {
+			this.data = data;
+			this.left = left;
+			this.right = right;
+			height = Math.max(height(left), height(right)) + 1;
+			size = size(left) + size(right) + 1;
+		}
+	}
+
+	private volatile Node<E> root;
+	//null when the natural ordering is used
+	private final Comparator<? super E> comparator;
+
+	public PersistentAVL() {
+		this(null, null);
+	}
+
+	/**
+	 * Creates an empty PersistentAVL ordered by the given Comparator
+	 * @param comparator ordering of the elements, null for natural ordering
+	 */
+	public PersistentAVL(Comparator<? super E> comparator) {
+		this(comparator, null);
+	}
+
+	private PersistentAVL(Comparator<? super E> comparator, Node<E> root) {
+		this.comparator = comparator;
+		this.root = root;
+	}
+
+	private static int height(Node<?> node) {
+		return node == null ? 0 : node.height;
+	}
+
+	private static int size(Node<?> node) {
+		return node == null ? 0 : node.size;
+	}
+
+	/**
+	 * Compares two elements with the Comparator, or with their natural ordering
+	 * @param a first element
+	 * @param b second element
+	 * @return negative, zero or positive as a is less than, equal to or greater than b
+	 */
+	@SuppressWarnings("unchecked")
+	private int compare(E a, E b) {
+		if(comparator != null) {
+			return comparator.compare(a, b);
+		}
+		return ((Comparable<? super E>) a).compareTo(b);
+	}
+
+	/**
+	 * Returns the current version as a PersistentAVL of its own in O(1).
+	 * Later changes to either tree do not affect the other.
+	 * @return snapshot of this tree
+	 */
+	public PersistentAVL<E> snapshot() {
+		return new PersistentAVL<E>(comparator, root);
+	}
+
+	/**
+	 * Adds the element, copying the path down to where it goes
+	 * @param e element being added
+	 * @return whether element has been added or not
+	 * @throws NullPointerException when element is null
+	 */
+	public synchronized boolean add(E e) throws NullPointerException {
+		if(e == null) {
+			throw new NullPointerException("element is null");
+		}
+		Node<E> oldRoot = root;
+		root = add(oldRoot, e);
+		return root != oldRoot;
+	}
+
+	/**
+	 * Recursively adds the element below the given Node
+	 * @param node root of the subtree
+	 * @param e element being added
+	 * @return new root of the subtree, or node itself if e was already there
+	 */
+	private Node<E> add(Node<E> node, E e) {
+		if(node == null) {
+			return new Node<E>(e, null, null);
+		}
+		int cmp = compare(e, node.data);
+		if(cmp < 0) {
+			Node<E> left = add(node.left, e);
+			return left == node.left ? node : balance(node.data, left, node.right);
+		}
+		if(cmp > 0) {
+			Node<E> right = add(node.right, e);
+			return right == node.right ? node : balance(node.data, node.left, right);
+		}
+		return node;
+	}
+
+	/**
+	 * Adds all of the elements in the specified collection
+	 * @param collection to be added
+	 * @return whether the tree has changed or not
+	 * @throws NullPointerException if collection is null or if any of its elements are null
+	 */
+	public synchronized boolean addAll(Collection<? extends E> collection) throws NullPointerException {
+		if(collection == null) {
+			throw new NullPointerException("Collection is null");
+		}
+		Node<E> oldRoot = root;
+		Node<E> newRoot = oldRoot;
+		for(E e: collection) {
+			if(e == null) {
+				throw new NullPointerException("Null element in collection");
+			}
+			newRoot = add(newRoot, e);
+		}
+		//publish the result as a single new version
+		root = newRoot;
+		return newRoot != oldRoot;
+	}
+
+	/**
+	 * Removes the element, copying the path down to it
+	 * @param o element being removed
+	 * @return whether element has been found and removed or not
+	 * @throws NullPointerException when element is null
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized boolean remove(Object o) throws NullPointerException, ClassCastException {
+		if(o == null) {
+			throw new NullPointerException("Specified element is null");
+		}
+		Node<E> oldRoot = root;
+		root = remove(oldRoot, (E) o);
+		return root != oldRoot;
+	}
+
+	/**
+	 * Recursively removes the element below the given Node.
+	 * A Node with two children is replaced by a copy holding its predecessor.
+	 * @param node root of the subtree
+	 * @param e element being removed
+	 * @return new root of the subtree, or node itself if e was not there
+	 */
+	private Node<E> remove(Node<E> node, E e) {
+		if(node == null) {
+			return null;
+		}
+		int cmp = compare(e, node.data);
+		if(cmp < 0) {
+			Node<E> left = remove(node.left, e);
+			return left == node.left ? node : balance(node.data, left, node.right);
+		}
+		if(cmp > 0) {
+			Node<E> right = remove(node.right, e);
+			return right == node.right ? node : balance(node.data, node.left, right);
+		}
+		if(node.left == null) {
+			return node.right;
+		}
+		if(node.right == null) {
+			return node.left;
+		}
+		Node<E> predecessor = node.left;
+		while(predecessor.right != null) {
+			predecessor = predecessor.right;
+		}
+		return balance(predecessor.data, removeLast(node.left), node.right);
+	}
+
+	/**
+	 * Removes the largest Node of the subtree
+	 * @param node root of the subtree
+	 * @return new root of the subtree
+	 */
+	private Node<E> removeLast(Node<E> node) {
+		if(node.right == null) {
+			return node.left;
+		}
+		return balance(node.data, node.left, removeLast(node.right));
+	}
+
+	/**
+	 * Creates the Node for data over the given subtrees, rotating if their
+	 * heights differ by more than 1. Rotations create new Nodes too.
+	 * @param data element of the Node
+	 * @param left left subtree
+	 * @param right right subtree
+	 * @return root of the balanced subtree
+	 */
+	private Node<E> balance(E data, Node<E> left, Node<E> right) {
+		if(height(left) > height(right) + 1) {
+			//left-left: single right rotation
+			if(height(left.left) >= height(left.right)) {
+				return new Node<E>(left.data, left.left, new Node<E>(data, left.right, right));
+			}
+			//left-right: double rotation
+			Node<E> middle = left.right;
+			return new Node<E>(middle.data,
+					new Node<E>(left.data, left.left, middle.left),
+					new Node<E>(data, middle.right, right));
+		}
+		if(height(right) > height(left) + 1) {
+			//right-right: single left rotation
+			if(height(right.right) >= height(right.left)) {
+				return new Node<E>(right.data, new Node<E>(data, left, right.left), right.right);
+			}
+			//right-left: double rotation
+			Node<E> middle = right.left;
+			return new Node<E>(middle.data,
+					new Node<E>(data, left, middle.left),
+					new Node<E>(right.data, middle.right, right.right));
+		}
+		return new Node<E>(data, left, right);
+	}
+
+	/**
+	 * Removes every element. Snapshots keep theirs.
+	 */
+	public synchronized void clear() {
+		root = null;
+	}
+
+	/**
+	 * Checks whether given object exists in the tree
+	 * @param o Object being searched for
+	 * @return whether object exists or not
+	 */
+	@SuppressWarnings("unchecked")
+	public boolean contains(Object o) throws NullPointerException, ClassCastException {
+		if(o == null) {
+			throw new NullPointerException("Null parameter");
+		}
+		Node<E> current = root;
+		while(current != null) {
+			int cmp = compare((E) o, current.data);
+			if(cmp == 0) {
+				return true;
+			}
+			current = cmp < 0 ? current.left : current.right;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns lowest (smallest) element
+	 * @return lowest element
+	 * @throws NoSuchElementException if empty
+	 */
+	public E first() throws NoSuchElementException {
+		Node<E> current = root;
+		if(current == null) {
+			throw new NoSuchElementException("Set is empty");
+		}
+		while(current.left != null) {
+			current = current.left;
+		}
+		return current.data;
+	}
+
+	/**
+	 * Returns largest element
+	 * @return largest element
+	 * @throws NoSuchElementException if empty
+	 */
+	public E last() throws NoSuchElementException {
+		Node<E> current = root;
+		if(current == null) {
+			throw new NoSuchElementException("Set is empty");
+		}
+		while(current.right != null) {
+			current = current.right;
+		}
+		return current.data;
+	}
+
+	/**
+	 * Returns the largest element less than or equal to e, or null if there is none
+	 * @param e element
+	 * @return largest element less than or equal to e
+	 */
+	public E floor(E e) throws NullPointerException, ClassCastException {
+		return nearest(e, true, true);
+	}
+
+	/**
+	 * Returns the least element greater than or equal to e, or null if there is none
+	 * @param e element
+	 * @return least element greater than or equal to e
+	 */
+	public E ceiling(E e) throws NullPointerException, ClassCastException {
+		return nearest(e, false, true);
+	}
+
+	/**
+	 * Returns the least element strictly greater than e, or null if there is none
+	 * @param e element
+	 * @return least element greater than e
+	 */
+	public E higher(E e) throws NullPointerException, ClassCastException {
+		return nearest(e, false, false);
+	}
+
+	/**
+	 * Returns the largest element strictly less than e, or null if there is none
+	 * @param e element
+	 * @return largest element less than e
+	 */
+	public E lower(E e) throws NullPointerException, ClassCastException {
+		return nearest(e, true, false);
+	}
+
+	/**
+	 * Finds the closest element below or above e in a single descent
+	 * @param e element
+	 * @param below whether the element searched for is below e
+	 * @param inclusive whether e itself counts
+	 * @return closest element, or null if there is none
+	 */
+	private E nearest(E e, boolean below, boolean inclusive) throws NullPointerException, ClassCastException {
+		if(e == null) {
+			throw new NullPointerException("Null argument");
+		}
+		Node<E> current = root;
+		Node<E> found = null;
+		while(current != null) {
+			int cmp = compare(current.data, e);
+			if(cmp == 0 && inclusive) {
+				return current.data;
+			}
+			if(below ? cmp < 0 : cmp > 0) {
+				found = current;
+				current = below ? current.right : current.left;
+			}
+			else {
+				current = below ? current.left : current.right;
+			}
+		}
+		return found == null ? null : found.data;
+	}
+
+	/**
+	 * Gets the element at the given index in sorted order in O(log n) time
+	 * @param index index of the element
+	 * @return element at given index
+	 * @throws IndexOutOfBoundsException
+	 */
+	public E get(int index) throws IndexOutOfBoundsException {
+		Node<E> current = root;
+		if(index < 0 || index >= size(current)) {
+			throw new IndexOutOfBoundsException("Index out of bounds");
+		}
+		while(true) {
+			int leftSize = size(current.left);
+			if(index < leftSize) {
+				current = current.left;
+			}
+			else if(index > leftSize) {
+				index -= leftSize + 1;
+				current = current.right;
+			}
+			else {
+				return current.data;
+			}
+		}
+	}
+
+	/**
+	 * Returns an ArrayList of all the elements within the range [fromElement, toElement], inclusive,
+	 * taken from a single version
+	 * @param fromElement lower bound
+	 * @param toElement upper bound
+	 * @return ArrayList of type E containing elements within the range
+	 * @throws NullPointerException
+	 * @throws IllegalArgumentException
+	 */
+	public ArrayList<E> getRange(E fromElement, E toElement) throws NullPointerException, IllegalArgumentException {
+		if(fromElement == null || toElement == null) {
+			throw new NullPointerException("Parameters can not be null");
+		}
+		if(compare(fromElement, toElement) > 0) {
+			throw new IllegalArgumentException("fromElement can not be greater than toElement");
+		}
+		ArrayList<E> list = new ArrayList<E>();
+		rangeTraverse(root, fromElement, toElement, list);
+		return list;
+	}
+
+	/**
+	 * Adds the elements of the subtree within the range to the list in order
+	 * @param node root of the subtree
+	 * @param fromElement lower bound
+	 * @param toElement upper bound
+	 * @param list being added to
+	 */
+	private void rangeTraverse(Node<E> node, E fromElement, E toElement, ArrayList<E> list) {
+		while(node != null) {
+			if(compare(node.data, fromElement) < 0) {
+				node = node.right;
+			}
+			else if(compare(node.data, toElement) > 0) {
+				node = node.left;
+			}
+			else {
+				rangeTraverse(node.left, fromElement, toElement, list);
+				list.add(node.data);
+				node = node.right;
+			}
+		}
+	}
+
+	/**
+	 * Gets the height of the tree
+	 * @return height
+	 */
+	public int height() {
+		return height(root);
+	}
+
+	/**
+	 * Returns how many elements are in the tree
+	 * @return size
+	 */
+	public int size() {
+		return size(root);
+	}
+
+	/**
+	 * Returns true if the tree is empty, false if it is not
+	 * @return size == 0
+	 */
+	public boolean isEmpty() {
+		return root == null;
+	}
+
+	/**
+	 * Returns an iterator over the current version in sorted order. remove()
+	 * removes the last returned element from this tree, the iterator
+	 * itself keeps walking its own version.
+	 * @return inOrder Iterator
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new Itr(root);
+	}
+
+	/**
+	 * Lazy inOrder iterator over one version, with a stack of at most height() Nodes
+	 */
+	private class Itr implements Iterator<E> {
+
+		private final ArrayDeque<Node<E>> stack = new ArrayDeque<Node<E>>();
+		private E lastReturned;
+
+		public Itr(Node<E> version) {
+			pushLeft(version);
+		}
+
+		private void pushLeft(Node<E> node) {
+			while(node != null) {
+				stack.push(node);
+				node = node.left;
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return !stack.isEmpty();
+		}
+
+		@Override
+		public E next() throws NoSuchElementException {
+			if(stack.isEmpty()) {
+				throw new NoSuchElementException("No next element");
+			}
+			Node<E> node = stack.pop();
+			pushLeft(node.right);
+			lastReturned = node.data;
+			return node.data;
+		}
+
+		@Override
+		public void remove() throws IllegalStateException {
+			if(lastReturned == null) {
+				throw new IllegalStateException("next has not been called");
+			}
+			PersistentAVL.this.remove(lastReturned);
+			lastReturned = null;
+		}
+	}
+
+	/**
+	 * Places the elements of the current version into an array in sorted order
+	 * @return array of Objects in sorted order
+	 */
+	public Object[] toArray() {
+		Node<E> version = root;
+		Object[] arr = new Object[size(version)];
+		Iterator<E> itr = new Itr(version);
+		for(int i = 0; i < arr.length; i++) {
+			arr[i] = itr.next();
+		}
+		return arr;
+	}
+
+	/**
+	 * Returns a String representation of the current version in order
+	 * @return String Array representation
+	 */
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+}
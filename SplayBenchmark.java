@@ -0,0 +1,113 @@
+package bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import project6.AVL;
+import project6.SplayTree;
+
+/**
+ * Compares SplayTree with AVL on lookups that follow the key stream.
+ * Both trees hold the even keys 2k for every k in [0, size), inserted in
+ * random order. A lookup for stream key k goes to a fixed random permutation
+ * of k, so under ZIPFIAN the popular keys are spread over the whole tree
+ * rather than packed at its low end. contains looks up the even key,
+ * floor the odd key next to it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SplayBenchmark {
+
+	@Param({"10000", "100000", "1000000"})
+	public int size;
+
+	@Param({"ZIPFIAN", "UNIFORM"})
+	public KeyStream stream;
+
+	private Integer[] present;
+	private Integer[] between;
+
+	private SplayTree<Integer> splay;
+	private AVL<Integer> avl;
+	private int cursor;
+
+	@Setup(Level.Trial)
+	public void fill() {
+		//Fisher-Yates shuffle of [0, size)
+		int[] permutation = new int[size];
+		for(int i = 0; i < size; i++) {
+			permutation[i] = i;
+		}
+		SplittableRandom random = new SplittableRandom(42);
+		for(int i = size - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int swap = permutation[i];
+			permutation[i] = permutation[j];
+			permutation[j] = swap;
+		}
+
+		splay = new SplayTree<Integer>();
+		avl = new AVL<Integer>();
+		for(int key: permutation) {
+			splay.add(key * 2);
+			avl.add(key * 2);
+		}
+
+		int[] keys = stream.generate(size, 7);
+		present = new Integer[size];
+		between = new Integer[size];
+		for(int i = 0; i < size; i++) {
+			present[i] = permutation[keys[i]] * 2;
+			between[i] = permutation[keys[i]] * 2 + 1;
+		}
+		cursor = 0;
+	}
+
+	/**
+	 * Moves to the next key of the stream, wrapping around at the end
+	 * @return position of the next key
+	 */
+	private int next() {
+		if(++cursor == size) {
+			cursor = 0;
+		}
+		return cursor;
+	}
+
+	@Benchmark
+	public boolean splayContains() {
+		return splay.contains(present[next()]);
+	}
+
+	@Benchmark
+	public boolean avlContains() {
+		return avl.contains(present[next()]);
+	}
+
+	@Benchmark
+	public Integer splayFloor() {
+		return splay.floor(between[next()]);
+	}
+
+	@Benchmark
+	public Integer avlFloor() {
+		return avl.floor(between[next()]);
+	}
+}
@@ -0,0 +1,1183 @@
+package project6;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This class is a generic splay tree with the API of BST.
+ * Every operation splays the last Node it reaches up to the root with
+ * zig, zig-zig and zig-zag rotations, so recently used elements stay near
+ * the root and skewed access patterns get cheaper than log n. Any sequence
+ * of m operations costs O(m log n) in total.
+ * Nodes keep their parent, so splaying and traversal need no recursion
+ * and no stack, and leftSize and rightSize are kept through every rotation
+ * so get(index) works as in BST.
+ *
+ * Reads splay too, so they restructure the tree without changing its
+ * elements. The inOrder iterator is not affected by that, since rotations
+ * keep the order of the elements, and only fails fast when elements are
+ * added or removed. Range iterators and range streams behave the same way.
+ * The preOrder and postOrder iterators also fail fast when a read changes
+ * the shape of the tree.
+ *
+ * @param <E> generic element
+ */
+public class SplayTree <E extends Comparable<E>> implements Iterable <E>{
+
+	private Node<E> root;
+	private int size;
+	//number of additions and removals, used by iterators to fail fast
+	private int modCount;
+	//number of times the shape of the tree has changed, reads included
+	private int shapeCount;
+
+	public SplayTree() {
+		root = null;
+		size = 0;
+	}
+
+	/**
+	 * Creates a SplayTree holding the elements of the array
+	 * @param collection array of elements
+	 * @throws IllegalArgumentException if the array is null
+	 */
+	public SplayTree(E[] collection) throws IllegalArgumentException {
+		if(collection == null) {
+			throw new IllegalArgumentException("Null argument not allowed");
+		}
+		for(E e: collection) {
+			add(e);
+		}
+	}
+
+	/**
+	 * This class stores a private node inside the SplayTree class.
+	 * Stores its parent for splaying, and the size of both subtrees
+	 * for get(index).
+	 *
+	 * @param <E> generic element
+	 */
+	private static class Node <E>{
+
+		private E data;
+		private Node<E> left;
+		private Node<E> right;
+		private Node<E> parent;
+		private int leftSize;
+		private int rightSize;
+
+		public Node(E e) {
+			data = e;
+			leftSize = 0;
+			rightSize = 0;
+		}
+	}
+
+	/**
+	 * Order in which an Itr visits the Nodes of the SplayTree
+	 */
+	private enum Order { IN, PRE, POST }
+
+	/**
+	 * Iterator class that can iterate through the SplayTree
+	 * Follows the parent pointers from one Node to the next, so it holds a
+	 * single Node and never splays. Fails fast with a ConcurrentModificationException
+	 * if an element is added or removed by anything other than this iterator's
+	 * remove(), and for preOrder and postOrder also if the shape changes.
+	 */
+	private class Itr implements Iterator<E>{
+
+		private final Order order;
+		private Node<E> next;
+		//rest of a preOrder or postOrder walk, copied out by the first remove()
+		private ArrayDeque<E> rest;
+		private E lastReturned;
+		private int expectedModCount = modCount;
+		private final int expectedShapeCount = shapeCount;
+
+		public Itr(Order order) {
+			this.order = order;
+			if(root == null) {
+				return;
+			}
+			if(order == Order.IN) {
+				next = leftmost(root);
+			}
+			else if(order == Order.PRE) {
+				next = root;
+			}
+			else {
+				next = leftmostLeaf(root);
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return rest != null ? !rest.isEmpty() : next != null;
+		}
+
+		@Override
+		public E next() throws NoSuchElementException, ConcurrentModificationException{
+			if(modCount != expectedModCount || (rest == null && order != Order.IN && shapeCount != expectedShapeCount)) {
+				throw new ConcurrentModificationException();
+			}
+			if(!hasNext()) {
+				throw new NoSuchElementException("No next element");
+			}
+			if(rest != null) {
+				lastReturned = rest.poll();
+				return lastReturned;
+			}
+			Node<E> node = next;
+			if(order == Order.IN) {
+				next = successor(node);
+			}
+			else if(order == Order.PRE) {
+				next = preorderSuccessor(node);
+			}
+			else {
+				next = postorderSuccessor(node);
+			}
+			lastReturned = node.data;
+			return node.data;
+		}
+
+		/**
+		 * Removes the last element returned by next() from the SplayTree.
+		 * Removing unlinks only the removed Node, so for the inOrder iterator
+		 * the next Node stays where it is. Splaying changes the preOrder and
+		 * postOrder of the other Nodes though, so for those the first remove()
+		 * copies the rest of the walk out of the tree in O(n) and the iterator
+		 * goes on from the copy.
+		 * @throws IllegalStateException if next() has not been called since the last remove()
+		 */
+		@Override
+		public void remove() throws IllegalStateException {
+			if(lastReturned == null) {
+				throw new IllegalStateException("next has not been called");
+			}
+			if(modCount != expectedModCount || (rest == null && order != Order.IN && shapeCount != expectedShapeCount)) {
+				throw new ConcurrentModificationException();
+			}
+			if(order != Order.IN && rest == null) {
+				rest = new ArrayDeque<E>();
+				for(; next != null; next = order == Order.PRE ? preorderSuccessor(next) : postorderSuccessor(next)) {
+					rest.add(next.data);
+				}
+			}
+			SplayTree.this.remove(lastReturned);
+			expectedModCount = modCount;
+			lastReturned = null;
+		}
+	}
+
+	/**
+	 * Lazy iterator over the elements between two bounds, ascending or descending.
+	 * Finds the first element with a search that splays the last Node it reaches,
+	 * then follows the parent pointers. Like the inOrder Itr it is not affected by
+	 * splaying and only fails fast when elements are added or removed.
+	 */
+	private class RangeItr implements Iterator<E>{
+
+		private final E fromElement;
+		private final boolean fromInclusive;
+		private final E toElement;
+		private final boolean toInclusive;
+		private final boolean descending;
+		private Node<E> next;
+		private E lastReturned;
+		private int expectedModCount = modCount;
+
+		public RangeItr(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive, boolean descending) {
+			this.fromElement = fromElement;
+			this.fromInclusive = fromInclusive;
+			this.toElement = toElement;
+			this.toInclusive = toInclusive;
+			this.descending = descending;
+			next = first();
+		}
+
+		/**
+		 * Finds the first Node within the near bound in the direction of
+		 * iteration, then splays the last Node the search reached
+		 * @return first Node, or null if there is none
+		 */
+		private Node<E> first() {
+			E bound = descending ? toElement : fromElement;
+			boolean inclusive = descending ? toInclusive : fromInclusive;
+			Node<E> current = root;
+			Node<E> last = null;
+			Node<E> found = null;
+			while(current != null) {
+				last = current;
+				int cmp = descending ? bound.compareTo(current.data) : current.data.compareTo(bound);
+				if(cmp > 0 || (cmp == 0 && inclusive)) {
+					found = current;
+					current = descending ? current.right : current.left;
+				}
+				else {
+					current = descending ? current.left : current.right;
+				}
+			}
+			if(last != null) {
+				splay(last);
+			}
+			return found;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if(next == null) {
+				return false;
+			}
+			//stop at the far bound
+			int cmp = descending ? fromElement.compareTo(next.data) : next.data.compareTo(toElement);
+			return cmp < 0 || (cmp == 0 && (descending ? fromInclusive : toInclusive));
+		}
+
+		@Override
+		public E next() throws NoSuchElementException, ConcurrentModificationException{
+			if(modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if(!hasNext()) {
+				throw new NoSuchElementException("No next element");
+			}
+			Node<E> node = next;
+			next = descending ? predecessor(node) : successor(node);
+			lastReturned = node.data;
+			return node.data;
+		}
+
+		/**
+		 * Removes the last element returned by next() from the SplayTree.
+		 * Removing unlinks only the removed Node, so the next Node stays where it is.
+		 * @throws IllegalStateException if next() has not been called since the last remove()
+		 */
+		@Override
+		public void remove() throws IllegalStateException {
+			if(lastReturned == null) {
+				throw new IllegalStateException("next has not been called");
+			}
+			if(modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			SplayTree.this.remove(lastReturned);
+			expectedModCount = modCount;
+			lastReturned = null;
+		}
+	}
+
+	/**
+	 * Finds the smallest Node of a subtree
+	 * @param node root of the subtree
+	 * @return leftmost Node
+	 */
+	private static <E> Node<E> leftmost(Node<E> node) {
+		while(node.left != null) {
+			node = node.left;
+		}
+		return node;
+	}
+
+	/**
+	 * Finds the largest Node of a subtree
+	 * @param node root of the subtree
+	 * @return rightmost Node
+	 */
+	private static <E> Node<E> rightmost(Node<E> node) {
+		while(node.right != null) {
+			node = node.right;
+		}
+		return node;
+	}
+
+	/**
+	 * Finds the first Node of a subtree in postOrder, preferring left children
+	 * @param node root of the subtree
+	 * @return leftmost leaf
+	 */
+	private static <E> Node<E> leftmostLeaf(Node<E> node) {
+		while(true) {
+			if(node.left != null) {
+				node = node.left;
+			}
+			else if(node.right != null) {
+				node = node.right;
+			}
+			else {
+				return node;
+			}
+		}
+	}
+
+	/**
+	 * Finds the next Node in order through the parent pointers
+	 * @param node current Node
+	 * @return next Node, or null if node is the last
+	 */
+	private static <E> Node<E> successor(Node<E> node) {
+		if(node.right != null) {
+			return leftmost(node.right);
+		}
+		while(node.parent != null && node.parent.right == node) {
+			node = node.parent;
+		}
+		return node.parent;
+	}
+
+	/**
+	 * Finds the previous Node in order through the parent pointers
+	 * @param node current Node
+	 * @return previous Node, or null if node is the first
+	 */
+	private static <E> Node<E> predecessor(Node<E> node) {
+		if(node.left != null) {
+			return rightmost(node.left);
+		}
+		while(node.parent != null && node.parent.left == node) {
+			node = node.parent;
+		}
+		return node.parent;
+	}
+
+	/**
+	 * Finds the next Node in preOrder through the parent pointers
+	 * @param node current Node
+	 * @return next Node, or null if node is the last
+	 */
+	private static <E> Node<E> preorderSuccessor(Node<E> node) {
+		if(node.left != null) {
+			return node.left;
+		}
+		if(node.right != null) {
+			return node.right;
+		}
+		//climb to the first ancestor entered from the left that has a right subtree
+		while(node.parent != null) {
+			Node<E> parent = node.parent;
+			if(parent.left == node && parent.right != null) {
+				return parent.right;
+			}
+			node = parent;
+		}
+		return null;
+	}
+
+	/**
+	 * Finds the next Node in postOrder through the parent pointers
+	 * @param node current Node
+	 * @return next Node, or null if node is the last
+	 */
+	private static <E> Node<E> postorderSuccessor(Node<E> node) {
+		Node<E> parent = node.parent;
+		if(parent == null || parent.right == node || parent.right == null) {
+			return parent;
+		}
+		return leftmostLeaf(parent.right);
+	}
+
+	/**
+	 * Rotates x above its parent, keeping leftSize and rightSize of both
+	 * @param x Node moving up
+	 */
+	private void rotate(Node<E> x) {
+		Node<E> parent = x.parent;
+		Node<E> grandparent = parent.parent;
+		if(parent.left == x) {
+			parent.left = x.right;
+			if(x.right != null) {
+				x.right.parent = parent;
+			}
+			x.right = parent;
+			parent.leftSize = x.rightSize;
+			x.rightSize = parent.leftSize + parent.rightSize + 1;
+		}
+		else {
+			parent.right = x.left;
+			if(x.left != null) {
+				x.left.parent = parent;
+			}
+			x.left = parent;
+			parent.rightSize = x.leftSize;
+			x.leftSize = parent.leftSize + parent.rightSize + 1;
+		}
+		parent.parent = x;
+		x.parent = grandparent;
+		if(grandparent == null) {
+			root = x;
+		}
+		else if(grandparent.left == parent) {
+			grandparent.left = x;
+		}
+		else {
+			grandparent.right = x;
+		}
+	}
+
+	/**
+	 * Moves x up to the root with zig-zig and zig-zag steps, and a final
+	 * zig when x ends up as a child of the root
+	 * @param x Node being splayed
+	 */
+	private void splay(Node<E> x) {
+		if(x.parent == null) {
+			return;
+		}
+		while(x.parent != null) {
+			Node<E> parent = x.parent;
+			Node<E> grandparent = parent.parent;
+			if(grandparent == null) {
+				rotate(x);
+			}
+			//zig-zig: rotate the parent first
+			else if((grandparent.left == parent) == (parent.left == x)) {
+				rotate(parent);
+				rotate(x);
+			}
+			//zig-zag
+			else {
+				rotate(x);
+				rotate(x);
+			}
+		}
+		shapeCount++;
+	}
+
+	/**
+	 * Descends towards e without splaying
+	 * @param e element searched for
+	 * @return Node holding e, or the last Node reached if e is not there, null if empty
+	 */
+	private Node<E> search(E e) {
+		Node<E> current = root;
+		Node<E> last = null;
+		while(current != null) {
+			last = current;
+			int cmp = e.compareTo(current.data);
+			if(cmp == 0) {
+				return current;
+			}
+			current = cmp < 0 ? current.left : current.right;
+		}
+		return last;
+	}
+
+	/**
+	 * Adds the element as a leaf, then splays it to the root
+	 * @param e element being added
+	 * @return whether element has been added or not
+	 * @throws NullPointerException when element is null
+	 */
+	public boolean add(E e) throws NullPointerException {
+		if(e == null) {
+			throw new NullPointerException ("element is null");
+		}
+		Node<E> parent = search(e);
+		if(parent == null) {
+			root = new Node<E>(e);
+			size++;
+			modCount++;
+			return true;
+		}
+		int cmp = e.compareTo(parent.data);
+		if(cmp == 0) {
+			splay(parent);
+			return false;
+		}
+		Node<E> node = new Node<E>(e);
+		node.parent = parent;
+		if(cmp < 0) {
+			parent.left = node;
+		}
+		else {
+			parent.right = node;
+		}
+
+		//count the new leaf in every subtree above it
+		for(Node<E> child = node, current = parent; current != null; child = current, current = current.parent) {
+			if(current.left == child) {
+				current.leftSize++;
+			}
+			else {
+				current.rightSize++;
+			}
+		}
+		splay(node);
+		size++;
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * Adds all of the elements in the specified collection to this tree.
+	 * @param collection to be added
+	 * @return whether the tree has changed or not
+	 * @throws NullPointerException if collection is null or if any of its elements are null
+	 */
+	public boolean addAll(Collection<? extends E> collection) throws NullPointerException {
+		if(collection == null) {
+			throw new NullPointerException("Collection is null");
+		}
+		int oldSize = size;
+		for(E e: collection) {
+			this.add(e);
+		}
+		return oldSize != size;
+	}
+
+	/**
+	 * Gets how many elements are in the left subtree of the root
+	 * @return leftSize of the root
+	 */
+	public int leftSize() {
+		if(root == null) {
+			return 0;
+		}
+		return root.leftSize;
+	}
+
+	/**
+	 * Gets how many elements are in the right subtree of the root
+	 * @return rightSize of the root
+	 */
+	public int rightSize() {
+		if(root == null) {
+			return 0;
+		}
+		return root.rightSize;
+	}
+
+	/**
+	 * Returns the least element greater than or equal to e
+	 * or null if there is no such element
+	 * @param e element
+	 * @return least element greater than or equal to e
+	 */
+	public E ceiling(E e) throws NullPointerException, ClassCastException {
+		return nearest(e, false, true);
+	}
+
+	/**
+	 * Finds the closest element below or above e in a single descent, then
+	 * splays the last Node reached, which pays for the descent
+	 * @param e element
+	 * @param below whether the element searched for is below e
+	 * @param inclusive whether e itself counts
+	 * @return closest element, or null if there is none
+	 * @throws NullPointerException when element is null
+	 */
+	private E nearest(E e, boolean below, boolean inclusive) throws NullPointerException, ClassCastException {
+		if(e == null) {
+			throw new NullPointerException("Null argument");
+		}
+		Node<E> current = root;
+		Node<E> last = null;
+		Node<E> found = null;
+		while(current != null) {
+			last = current;
+			int cmp = current.data.compareTo(e);
+			if(cmp == 0 && inclusive) {
+				found = current;
+				break;
+			}
+			if(below ? cmp < 0 : cmp > 0) {
+				found = current;
+				current = below ? current.right : current.left;
+			}
+			else {
+				current = below ? current.left : current.right;
+			}
+		}
+		if(last != null) {
+			splay(last);
+		}
+		return found == null ? null : found.data;
+	}
+
+	/**
+	 * Clears the SplayTree
+	 */
+	public void clear() {
+		root = null;
+		size = 0;
+		modCount++;
+	}
+
+	/**
+	 * Copies the SplayTree Node by Node in O(n) time without recursion
+	 * @return copy of this SplayTree with the same shape
+	 */
+	public SplayTree<E> clone() {
+		SplayTree<E> clone = new SplayTree<E>();
+		clone.size = size;
+		if(root == null) {
+			return clone;
+		}
+		clone.root = copyOf(root);
+
+		//walk both trees in preOrder, copying the children of each Node
+		Node<E> node = root;
+		Node<E> copy = clone.root;
+		while(node != null) {
+			if(node.left != null && copy.left == null) {
+				copy.left = copyOf(node.left);
+				copy.left.parent = copy;
+				node = node.left;
+				copy = copy.left;
+			}
+			else if(node.right != null && copy.right == null) {
+				copy.right = copyOf(node.right);
+				copy.right.parent = copy;
+				node = node.right;
+				copy = copy.right;
+			}
+			else {
+				node = node.parent;
+				copy = copy.parent;
+			}
+		}
+		return clone;
+	}
+
+	/**
+	 * Copies a single Node without its links
+	 * @param node Node being copied
+	 * @return copy of the Node
+	 */
+	private static <E> Node<E> copyOf(Node<E> node) {
+		Node<E> copy = new Node<E>(node.data);
+		copy.leftSize = node.leftSize;
+		copy.rightSize = node.rightSize;
+		return copy;
+	}
+
+	/**
+	 * Checks whether given object exists in the tree, and splays the
+	 * last Node reached
+	 * @param o Object being searched for
+	 * @return whether object exists or not
+	 * @throws NullPointerException
+	 * @throws ClassCastException
+	 */
+	@SuppressWarnings("unchecked")
+	public boolean contains(Object o) throws NullPointerException, ClassCastException {
+		if(o == null) {
+			throw new NullPointerException("Null parameter");
+		}
+		Node<E> node = search((E) o);
+		if(node == null) {
+			return false;
+		}
+		splay(node);
+		return node.data.compareTo((E) o) == 0;
+	}
+
+	/**
+	 * Checks whether each element in given collection exists within the
+	 * SplayTree or not. Returns true if all elements exist.
+	 * @param c Collection of items being searched for
+	 * @return whether all elements in c exist or not
+	 * @throws NullPointerException
+	 * @throws ClassCastException
+	 */
+	public boolean containsAll(Collection<?> c) throws NullPointerException, ClassCastException {
+		if(c == null) {
+			throw new NullPointerException("Null parameter");
+		}
+		for(Object t: c) {
+			if(!this.contains(t)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Counts the elements within the given range [fromElement, toElement], inclusive,
+	 * from the sizes on two search paths
+	 * @param fromElement lower bound
+	 * @param toElement upper bound
+	 * @return number of elements within the range
+	 * @throws NullPointerException
+	 * @throws IllegalArgumentException
+	 */
+	public int countRange(E fromElement, E toElement) throws NullPointerException, IllegalArgumentException {
+		return countRange(fromElement, true, toElement, true);
+	}
+
+	/**
+	 * Counts the elements between fromElement and toElement from the sizes
+	 * on two search paths
+	 * @param fromElement lower bound
+	 * @param fromInclusive whether fromElement itself is counted
+	 * @param toElement upper bound
+	 * @param toInclusive whether toElement itself is counted
+	 * @return number of elements within the range
+	 * @throws NullPointerException
+	 * @throws IllegalArgumentException
+	 */
+	public int countRange(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive) throws NullPointerException, IllegalArgumentException {
+		checkRange(fromElement, toElement);
+		//an empty range such as (e, e) would otherwise count -1
+		return Math.max(0, countBelow(toElement, toInclusive) - countBelow(fromElement, !fromInclusive));
+	}
+
+	/**
+	 * Counts the elements less than e, or less than or equal to e, in a
+	 * single descent, then splays the last Node reached
+	 * @param e element
+	 * @param inclusive whether e itself is counted
+	 * @return number of elements below e
+	 */
+	private int countBelow(E e, boolean inclusive) {
+		int count = 0;
+		Node<E> current = root;
+		Node<E> last = null;
+		while(current != null) {
+			last = current;
+			int cmp = current.data.compareTo(e);
+			if(cmp == 0) {
+				count += current.leftSize + (inclusive ? 1 : 0);
+				break;
+			}
+			if(cmp < 0) {
+				count += current.leftSize + 1;
+				current = current.right;
+			}
+			else {
+				current = current.left;
+			}
+		}
+		if(last != null) {
+			splay(last);
+		}
+		return count;
+	}
+
+	/**
+	 * Compares 2 SplayTree objects to see if they hold the same elements
+	 * @param obj this is being compared to
+	 * @return boolean true if both are equal and false if not equal
+	 */
+	@SuppressWarnings("unchecked")
+	public boolean equals(Object obj) {
+		if(obj == null || this.getClass() != obj.getClass()) {
+			return false;
+		}
+		if(this == obj) {
+			return true;
+		}
+		SplayTree<E> other = (SplayTree<E>) obj;
+		if(this.size != other.size) {
+			return false;
+		}
+		Iterator<E> thisItr = this.iterator();
+		Iterator<E> otherItr = other.iterator();
+		while(thisItr.hasNext()) {
+			if(!thisItr.next().equals(otherItr.next())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns lowest (smallest) element and splays it to the root
+	 * @return lowest element
+	 * @throws NoSuchElementException if empty
+	 */
+	public E first() throws NoSuchElementException {
+		if(root == null) {
+			throw new NoSuchElementException("Set is empty");
+		}
+		Node<E> node = leftmost(root);
+		splay(node);
+		return node.data;
+	}
+
+	/**
+	 * Returns the largest element less than or equal to e
+	 * or null if there is no such element
+	 * @param e element
+	 * @return largest element less than or equal to e
+	 */
+	public E floor(E e) throws NullPointerException, ClassCastException {
+		return nearest(e, true, true);
+	}
+
+	/**
+	 * Gets the element at the given index (in order) and splays it to the root
+	 * @param index index of the element
+	 * @return element at the index
+	 * @throws IndexOutOfBoundsException
+	 */
+	public E get(int index) throws IndexOutOfBoundsException {
+		if(index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index out of bounds");
+		}
+		Node<E> current = root;
+		while(index != current.leftSize) {
+			if(index < current.leftSize) {
+				current = current.left;
+			}
+			else {
+				index -= current.leftSize + 1;
+				current = current.right;
+			}
+		}
+		splay(current);
+		return current.data;
+	}
+
+	/**
+	 * Returns an ArrayList of all the elements within the given range
+	 * [fromElement, toElement], inclusive. The first element is splayed to
+	 * the root and the rest are found through the parent pointers.
+	 * @param fromElement lower bound
+	 * @param toElement upper bound
+	 * @return ArrayList of type E containing elements within the range, empty if there are none
+	 * @throws NullPointerException
+	 * @throws IllegalArgumentException
+	 */
+	public ArrayList<E> getRange(E fromElement, E toElement) throws NullPointerException, IllegalArgumentException {
+		checkRange(fromElement, toElement);
+		ArrayList<E> list = new ArrayList<E>();
+		E first = ceiling(fromElement);
+		if(first == null) {
+			return list;
+		}
+		//ceiling left the last Node it reached at the root, the first element is the root or its successor
+		Node<E> node = root.data.compareTo(first) == 0 ? root : successor(root);
+		while(node != null && node.data.compareTo(toElement) <= 0) {
+			list.add(node.data);
+			node = successor(node);
+		}
+		return list;
+	}
+
+	/**
+	 * Checks the bounds of a range
+	 * @param fromElement lower bound
+	 * @param toElement upper bound
+	 * @throws NullPointerException if either bound is null
+	 * @throws IllegalArgumentException if fromElement is greater than toElement
+	 */
+	private void checkRange(E fromElement, E toElement) throws NullPointerException, IllegalArgumentException {
+		if(fromElement == null || toElement == null) {
+			throw new NullPointerException("Parameters can not be null");
+		}
+		if(fromElement.compareTo(toElement) > 0) {
+			throw new IllegalArgumentException("fromElement can not be greater than toElement");
+		}
+	}
+
+	/**
+	 * Computes the height of the tree. Splaying keeps no heights,
+	 * so this walks every Node in O(n) time.
+	 * @return height
+	 */
+	public int height() {
+		int height = 0;
+		int depth = 0;
+		Node<E> node = root;
+		Node<E> previous = null;
+		while(node != null) {
+			Node<E> next;
+			if(previous == node.parent) {
+				depth++;
+				height = Math.max(height, depth);
+				next = node.left != null ? node.left : node.right != null ? node.right : node.parent;
+			}
+			else if(previous == node.left && node.right != null) {
+				next = node.right;
+			}
+			else {
+				next = node.parent;
+			}
+			if(next == node.parent) {
+				depth--;
+			}
+			previous = node;
+			node = next;
+		}
+		return height;
+	}
+
+	/**
+	 * Returns the least element strictly greater than e
+	 * or null if there is no such element
+	 * @param e element
+	 * @return least element greater than e
+	 */
+	public E higher(E e) throws ClassCastException, NullPointerException {
+		return nearest(e, false, false);
+	}
+
+	/**
+	 * Returns true if the SplayTree is empty, false if it is not
+	 * @return size == 0
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns largest element and splays it to the root
+	 * @return largest element
+	 * @throws NoSuchElementException if empty
+	 */
+	public E last() throws NoSuchElementException {
+		if(root == null) {
+			throw new NoSuchElementException("Set is empty");
+		}
+		Node<E> node = root;
+		while(node.right != null) {
+			node = node.right;
+		}
+		splay(node);
+		return node.data;
+	}
+
+	/**
+	 * Returns the largest element strictly less than e
+	 * or null if there is no such element
+	 * @param e element
+	 * @return largest element less than e
+	 */
+	public E lower(E e) throws ClassCastException, NullPointerException {
+		return nearest(e, true, false);
+	}
+
+	/**
+	 * Returns an iterator which traverses the SplayTree in order
+	 * @return inOrder Iterator
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new Itr(Order.IN);
+	}
+
+	/**
+	 * Returns an iterator which traverses the SplayTree in preOrder
+	 * @return preOrder Iterator
+	 */
+	public Iterator<E> preorderIterator() {
+		return new Itr(Order.PRE);
+	}
+
+	/**
+	 * Returns an iterator which traverses the SplayTree in postOrder
+	 * @return postOrder Iterator
+	 */
+	public Iterator<E> postorderIterator() {
+		return new Itr(Order.POST);
+	}
+
+	/**
+	 * Returns a lazy iterator over the elements within the given range
+	 * [fromElement, toElement], inclusive, in order
+	 * @param fromElement lower bound
+	 * @param toElement upper bound
+	 * @return Iterator over the range
+	 * @throws NullPointerException
+	 * @throws IllegalArgumentException
+	 */
+	public Iterator<E> rangeIterator(E fromElement, E toElement) throws NullPointerException, IllegalArgumentException {
+		return rangeIterator(fromElement, true, toElement, true, false);
+	}
+
+	/**
+	 * Returns a lazy iterator over the elements between fromElement and toElement.
+	 * Splays its way to the first element and only walks further as next()
+	 * is called, so wide ranges are never copied.
+	 * @param fromElement lower bound
+	 * @param fromInclusive whether fromElement itself is returned
+	 * @param toElement upper bound
+	 * @param toInclusive whether toElement itself is returned
+	 * @param descending whether to go from toElement down to fromElement
+	 * @return Iterator over the range
+	 * @throws NullPointerException
+	 * @throws IllegalArgumentException
+	 */
+	public Iterator<E> rangeIterator(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive,
+			boolean descending) throws NullPointerException, IllegalArgumentException {
+		checkRange(fromElement, toElement);
+		return new RangeItr(fromElement, fromInclusive, toElement, toInclusive, descending);
+	}
+
+	/**
+	 * Returns a sequential Stream of the elements within the given range
+	 * [fromElement, toElement], inclusive, in order
+	 * @param fromElement lower bound
+	 * @param toElement upper bound
+	 * @return Stream over the range
+	 * @throws NullPointerException
+	 * @throws IllegalArgumentException
+	 */
+	public Stream<E> rangeStream(E fromElement, E toElement) throws NullPointerException, IllegalArgumentException {
+		return rangeStream(fromElement, true, toElement, true, false);
+	}
+
+	/**
+	 * Returns a sequential Stream of the elements between fromElement and toElement,
+	 * backed by rangeIterator and sized by countRange
+	 * @param fromElement lower bound
+	 * @param fromInclusive whether fromElement itself is returned
+	 * @param toElement upper bound
+	 * @param toInclusive whether toElement itself is returned
+	 * @param descending whether to go from toElement down to fromElement
+	 * @return Stream over the range
+	 * @throws NullPointerException
+	 * @throws IllegalArgumentException
+	 */
+	public Stream<E> rangeStream(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive,
+			boolean descending) throws NullPointerException, IllegalArgumentException {
+		int count = countRange(fromElement, fromInclusive, toElement, toInclusive);
+		Iterator<E> itr = rangeIterator(fromElement, fromInclusive, toElement, toInclusive, descending);
+		return StreamSupport.stream(Spliterators.spliterator(itr, count,
+				Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+	}
+
+	/**
+	 * Removes the given element. Splays its Node to the root, then joins the
+	 * two subtrees by splaying the largest Node of the left one to its top,
+	 * where it has no right child, and hanging the right subtree there.
+	 * @param o element being removed
+	 * @return whether element has been found and removed or not
+	 */
+	@SuppressWarnings("unchecked")
+	public boolean remove(Object o) throws ClassCastException, NullPointerException {
+		if(o == null) {
+			throw new NullPointerException("Specified element is null");
+		}
+		Node<E> node = search((E) o);
+		if(node == null) {
+			return false;
+		}
+		splay(node);
+		if(node.data.compareTo((E) o) != 0) {
+			return false;
+		}
+		Node<E> left = node.left;
+		Node<E> right = node.right;
+		if(left == null) {
+			root = right;
+		}
+		else {
+			left.parent = null;
+			root = left;
+			Node<E> max = left;
+			while(max.right != null) {
+				max = max.right;
+			}
+			splay(max);
+			max.right = right;
+			max.rightSize = node.rightSize;
+		}
+		if(right != null) {
+			right.parent = root == right ? null : root;
+		}
+		node.left = null;
+		node.right = null;
+		size--;
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * Returns the size of the SplayTree, or how many elements are in it
+	 * @return size
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Utilizes iterator (inorder) to place elements into an array
+	 * @return array of Objects in sorted order
+	 */
+	public Object[] toArray() {
+		int count = 0;
+		Object[] arr = new Object[size];
+		Iterator<E> itr = this.iterator();
+		while(itr.hasNext()) {
+			arr[count++] = itr.next();
+		}
+		return arr;
+	}
+
+	/**
+	 * Returns a String representation of the SplayTree in order
+	 */
+	@Override
+	public String toString() {
+		return Arrays.toString(this.toArray());
+	}
+
+	/**
+	 * Returns a formatted and readable SplayTree. Walks the tree in preOrder
+	 * through the parent pointers, so a deep tree prints without recursion.
+	 * @return formatted SplayTree
+	 */
+	public String toStringTreeFormat() {
+		StringBuilder output = new StringBuilder();
+		appendLine(root, 0, output);
+		Node<E> node = root;
+		int level = 0;
+		//0: left child is next, 1: right child is next, 2: go back up
+		int step = 0;
+		while(node != null) {
+			if(step == 0) {
+				appendLine(node.left, level + 1, output);
+				step = 1;
+				if(node.left != null) {
+					node = node.left;
+					level++;
+					step = 0;
+				}
+			}
+			else if(step == 1) {
+				appendLine(node.right, level + 1, output);
+				step = 2;
+				if(node.right != null) {
+					node = node.right;
+					level++;
+					step = 0;
+				}
+			}
+			else {
+				step = node.parent != null && node.parent.left == node ? 1 : 2;
+				node = node.parent;
+				level--;
+			}
+		}
+		return output.toString();
+	}
+
+	/**
+	 * Appends one line of the formatted tree
+	 * @param node Node on the line, null children are shown as "null"
+	 * @param level of the node
+	 * @param output formatted tree
+	 */
+	private void appendLine(Node<E> node, int level, StringBuilder output) {
+		output.append("\n");
+		if (level > 0) {
+			for (int i = 0; i < level - 1; i++) {
+				output.append("   ");
+			}
+			output.append("|--");
+		}
+		output.append(node == null ? "null" : node.data);
+	}
+}
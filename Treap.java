@@ -0,0 +1,1179 @@
+package project6;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This class is a generic treap, a Binary Search Tree whose Nodes also carry a
+ * random priority and are kept in heap order by it. The shape is the same as
+ * if the elements had been inserted in random order, so the expected height is
+ * O(log n) whatever order the elements really come in, sorted included.
+ * Nodes are linked by split and merge alone, no rotations, and both are also
+ * public: split(E) and merge(Treap) cut and join whole treaps in O(log n)
+ * expected time.
+ * Offers the API of BST, with leftSize and rightSize kept for get(index).
+ *
+ * @param <E> generic element
+ */
+public class Treap <E extends Comparable<E>> implements Iterable <E>{
+	
+	private Node<E> root;
+	private int size;
+	//number of structural modifications, used by iterators to fail fast
+	private int modCount;
+	//source of the Node priorities
+	private final SplittableRandom random;
+	
+	public Treap() {
+		this(new SplittableRandom());
+	}
+	
+	/**
+	 * Creates an empty Treap drawing priorities from the given source
+	 * @param random source of the priorities, shared with the Treaps split off this one
+	 */
+	private Treap(SplittableRandom random) {
+		root = null;
+		size = 0;
+		this.random = random;
+	}
+	
+	/**
+	 * Creates a Treap holding the elements of the array
+	 * @param collection array of elements
+	 * @throws IllegalArgumentException if the array is null
+	 */
+	public Treap(E[] collection) throws IllegalArgumentException {
+		this();
+		if(collection == null) {
+			throw new IllegalArgumentException("Null argument not allowed");
+		}
+		for(E e: collection) {
+			add(e);
+		}
+	}
+	
+	/**
+	 * This class stores a private node inside the Treap class.
+	 * The class has data fields for a Left node, Right node.
+	 * Stores height for making returning height O(1) time.
+	 * Stores left and right height of node to make get(index)
+	 * function run in efficient time.
+	 * Stores a random priority, which is never lower than the priorities
+	 * of its children.
+	 *
+	 * @param <E> generic element
+	 */
+	private static class Node <E>{
+		
+		private E data;
+		private Node<E> left;
+		private Node<E> right;
+		private final int priority;
+		private int height;
+		private int leftSize;
+		private int rightSize;
+		
+		public Node(E e, int priority) {
+			data = e;
+			this.priority = priority;
+			height = 1;
+			leftSize = 0;
+			rightSize = 0;
+		}
+	}
+
+	/**
+	 * Order in which an Itr visits the Nodes of the Treap
+	 */
+	private enum Order { IN, PRE, POST }
+
+	/**
+	 * Iterator class that can iterate through the Treap
+	 * The constructor takes in the traversal order so the proper iterator is returned.
+	 * Walks the tree lazily with an explicit stack that never holds more than
+	 * height() Nodes, so creating the iterator is O(height) rather than O(n).
+	 * Fails fast with a ConcurrentModificationException if the Treap is modified
+	 * by anything other than this iterator's remove().
+	 */
+	private class Itr implements Iterator<E>{
+		
+		private final Order order;
+		private final ArrayDeque<Node<E>> stack = new ArrayDeque<Node<E>>();
+		private E lastReturned;
+		private int expectedModCount = modCount;
+		
+		public Itr(Order order) {
+			this.order = order;
+			if(root == null) {
+				return;
+			}
+			if(order == Order.PRE) {
+				stack.push(root);
+			}
+			else if(order == Order.IN) {
+				pushLeft(root);
+			}
+			else {
+				pushLeftmostLeaf(root);
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return !stack.isEmpty();
+		}
+
+		@Override
+		public E next() throws NoSuchElementException, ConcurrentModificationException{
+			if(modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if(!hasNext()) {
+				throw new NoSuchElementException("No next element");
+			}
+			Node<E> node = stack.pop();
+			
+			//inOrder traversal
+			if(order == Order.IN) {
+				pushLeft(node.right);
+			}
+			//preOrder traversal
+			else if(order == Order.PRE) {
+				if(node.right != null) {
+					stack.push(node.right);
+				}
+				if(node.left != null) {
+					stack.push(node.left);
+				}
+			}
+			//postOrder traversal, node was a left child so its sibling subtree comes next
+			else if(!stack.isEmpty() && stack.peek().left == node && stack.peek().right != null) {
+				pushLeftmostLeaf(stack.peek().right);
+			}
+			lastReturned = node.data;
+			return node.data;
+		}
+		
+		/**
+		 * Removes the last element returned by next() from the Treap.
+		 * Only supported by the inOrder iterator: removing can restructure the tree,
+		 * after which the iterator seeks back to the successor of the removed element
+		 * in O(height) time.
+		 * @throws UnsupportedOperationException for preOrder and postOrder iterators
+		 * @throws IllegalStateException if next() has not been called since the last remove()
+		 */
+		@Override
+		public void remove() throws UnsupportedOperationException, IllegalStateException {
+			if(order != Order.IN) {
+				throw new UnsupportedOperationException("remove is only supported in order");
+			}
+			if(lastReturned == null) {
+				throw new IllegalStateException("next has not been called");
+			}
+			if(modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			Treap.this.remove(lastReturned);
+			expectedModCount = modCount;
+			
+			//the remaining elements are the ones greater than the removed element
+			stack.clear();
+			Node<E> current = root;
+			while(current != null) {
+				if(((Comparable<E>) current.data).compareTo(lastReturned) > 0) {
+					stack.push(current);
+					current = current.left;
+				}
+				else {
+					current = current.right;
+				}
+			}
+			lastReturned = null;
+		}
+		
+		/**
+		 * Pushes the given Node and its chain of left children
+		 * @param node top of the chain
+		 */
+		private void pushLeft(Node<E> node) {
+			while(node != null) {
+				stack.push(node);
+				node = node.left;
+			}
+		}
+		
+		/**
+		 * Pushes the path from the given Node down to the first Node visited
+		 * in postOrder, preferring left children over right children
+		 * @param node top of the path
+		 */
+		private void pushLeftmostLeaf(Node<E> node) {
+			while(node != null) {
+				stack.push(node);
+				node = node.left != null ? node.left : node.right;
+			}
+		}
+	}
+	
+	/**
+	 * Lazy iterator over the elements between two bounds, ascending or descending.
+	 * Seeks to the first element in O(height), then walks on demand with an
+	 * explicit stack of at most height() Nodes. Fails fast like Itr.
+	 */
+	private class RangeItr implements Iterator<E>{
+		
+		private final E fromElement;
+		private final boolean fromInclusive;
+		private final E toElement;
+		private final boolean toInclusive;
+		private final boolean descending;
+		private final ArrayDeque<Node<E>> stack = new ArrayDeque<Node<E>>();
+		private E lastReturned;
+		private int expectedModCount = modCount;
+		
+		public RangeItr(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive, boolean descending) {
+			this.fromElement = fromElement;
+			this.fromInclusive = fromInclusive;
+			this.toElement = toElement;
+			this.toInclusive = toInclusive;
+			this.descending = descending;
+			if(descending) {
+				seek(toElement, toInclusive);
+			}
+			else {
+				seek(fromElement, fromInclusive);
+			}
+		}
+		
+		/**
+		 * Pushes every Node on the search path for bound that comes at or after
+		 * bound in the direction of iteration, so the top of the stack is the
+		 * first element to return
+		 * @param bound where iteration starts
+		 * @param inclusive whether bound itself is returned
+		 */
+		private void seek(E bound, boolean inclusive) {
+			stack.clear();
+			Node<E> current = root;
+			while(current != null) {
+				int cmp = descending ? bound.compareTo(current.data) : current.data.compareTo(bound);
+				if(cmp > 0 || (cmp == 0 && inclusive)) {
+					stack.push(current);
+					current = descending ? current.right : current.left;
+				}
+				else {
+					current = descending ? current.left : current.right;
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			if(stack.isEmpty()) {
+				return false;
+			}
+			//stop at the far bound
+			int cmp = descending ? fromElement.compareTo(stack.peek().data) : stack.peek().data.compareTo(toElement);
+			return cmp < 0 || (cmp == 0 && (descending ? fromInclusive : toInclusive));
+		}
+
+		@Override
+		public E next() throws NoSuchElementException, ConcurrentModificationException{
+			if(modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if(!hasNext()) {
+				throw new NoSuchElementException("No next element");
+			}
+			Node<E> node = stack.pop();
+			Node<E> current = descending ? node.left : node.right;
+			while(current != null) {
+				stack.push(current);
+				current = descending ? current.right : current.left;
+			}
+			lastReturned = node.data;
+			return node.data;
+		}
+		
+		/**
+		 * Removes the last element returned by next() from the Treap, then seeks
+		 * past it again in O(height) time
+		 * @throws IllegalStateException if next() has not been called since the last remove()
+		 */
+		@Override
+		public void remove() throws IllegalStateException {
+			if(lastReturned == null) {
+				throw new IllegalStateException("next has not been called");
+			}
+			if(modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			Treap.this.remove(lastReturned);
+			expectedModCount = modCount;
+			seek(lastReturned, false);
+			lastReturned = null;
+		}
+	}
+	
+	/**
+	 * Adds the Node with given element.
+	 * Descends once to check for the element, remembering the first Node
+	 * with a lower priority than the new one. The subtree there is split
+	 * around the element to become the children of the new Node, and the
+	 * Nodes above it are updated on the way back.
+	 * @param e element being added
+	 * @return whether element has been added or not
+	 * @throws NullPointerException when element is null
+	 */
+	public boolean add ( E e ) throws NullPointerException{
+		if(e == null) {
+			throw new NullPointerException ("element is null");
+		}
+		Node<E> node = new Node<E>(e, random.nextInt());
+		ArrayDeque<Node<E>> path = new ArrayDeque<Node<E>>();
+		Node<E> below = null;
+		Node<E> current = root;
+		while(current != null) {
+			int cmp = e.compareTo(current.data);
+			if(cmp == 0) {
+				return false;
+			}
+			if(below == null) {
+				if(current.priority < node.priority) {
+					below = current;
+				}
+				else {
+					path.push(current);
+				}
+			}
+			current = cmp < 0 ? current.left : current.right;
+		}
+		Node<E>[] halves = newHalves();
+		split(below, e, halves);
+		node.left = halves[0];
+		node.right = halves[1];
+		update(node);
+		
+		Node<E> parent = path.peek();
+		if(parent == null) {
+			root = node;
+		}
+		else if(e.compareTo(parent.data) < 0) {
+			parent.left = node;
+		}
+		else {
+			parent.right = node;
+		}
+		//deepest Node first
+		for(Node<E> ancestor: path) {
+			update(ancestor);
+		}
+		size++;
+		modCount++;
+		return true;
+	}
+	
+	/**
+	 * Creates the pair of subtrees filled in by split
+	 * @return array of length 2
+	 */
+	@SuppressWarnings("unchecked")
+	private Node<E>[] newHalves() {
+		return (Node<E>[]) new Node[2];
+	}
+	
+	/**
+	 * Splits a subtree into the elements less than e and the elements
+	 * greater than or equal to e, reusing its Nodes
+	 * @param node root of the subtree
+	 * @param e element to split around
+	 * @param halves filled with the lower and upper subtree
+	 */
+	private void split(Node<E> node, E e, Node<E>[] halves) {
+		if(node == null) {
+			halves[0] = null;
+			halves[1] = null;
+		}
+		else if(node.data.compareTo(e) < 0) {
+			split(node.right, e, halves);
+			node.right = halves[0];
+			update(node);
+			halves[0] = node;
+		}
+		else {
+			split(node.left, e, halves);
+			node.left = halves[1];
+			update(node);
+			halves[1] = node;
+		}
+	}
+	
+	/**
+	 * Merges two subtrees where every element of left is less than every element
+	 * of right. The root with the higher priority stays on top.
+	 * @param left lower subtree
+	 * @param right upper subtree
+	 * @return root of the merged subtree
+	 */
+	private Node<E> merge(Node<E> left, Node<E> right) {
+		if(left == null) {
+			return right;
+		}
+		if(right == null) {
+			return left;
+		}
+		if(left.priority > right.priority) {
+			left.right = merge(left.right, right);
+			update(left);
+			return left;
+		}
+		right.left = merge(left, right.left);
+		update(right);
+		return right;
+	}
+	
+	/**
+	 * Recomputes leftSize, rightSize and height of a Node from its children
+	 * @param node Node being updated
+	 */
+	private void update(Node<E> node) {
+		node.leftSize = sizeOf(node.left);
+		node.rightSize = sizeOf(node.right);
+		updateHeight(node);
+	}
+	
+	/**
+	 * Returns the number of elements in a subtree
+	 * @param node root of the subtree
+	 * @return size of the subtree, 0 if null
+	 */
+	private static int sizeOf(Node<?> node) {
+		return node == null ? 0 : node.leftSize + node.rightSize + 1;
+	}
+	
+	/**
+	 * Gets the left height of a Node
+	 * @return leftSize, however many elements are in the left subtree
+	 */
+	public int leftSize() {
+		if (root == null) {
+			return 0;
+		}
+		return root.leftSize;
+	}
+	/**
+	 * Gets the right height of a Node
+	 * @return rightSize, however many elements are in the right subtree
+	 */
+	public int rightSize() {
+		if(root == null) {
+			return 0;
+		}
+		return root.rightSize;
+	}	
+	
+	/**
+	 * Adds all of the elements in the specified collection to this tree.
+	 * @param collection to be added to Treap
+	 * @return whether Treap has changed or not
+	 * @throws NullPointerException if collection is null or if any of its elements are null
+	 */
+	public boolean addAll(Collection<? extends E> collection) throws NullPointerException {
+		
+		//Null parameter
+		if(collection == null) {
+			throw new NullPointerException("Collection is null");
+		}
+		int oldSize = size;
+
+		for(E e: collection) {
+			this.add(e);
+		}
+		return oldSize != size;
+	}
+	
+	
+	/**
+	 * Returns the least element greater than or equal to e
+	 * or null if there is no such element
+	 * @param e element
+	 * @return least element greater than e
+	 */
+	public E ceiling(E e) throws NullPointerException, ClassCastException{
+		return nearest(e, false, true);
+	}
+	
+	/**
+	 * Finds the closest element below or above e in a single descent, keeping
+	 * the last Node passed on the wanted side of e
+	 * @param e element
+	 * @param below whether the element searched for is below e
+	 * @param inclusive whether e itself counts
+	 * @return closest element, or null if there is none
+	 * @throws NullPointerException when element is null
+	 * @throws ClassCastException when element is of the wrong type
+	 */
+	private E nearest(E e, boolean below, boolean inclusive) throws NullPointerException, ClassCastException {
+		if(e == null) {
+			throw new NullPointerException("Null argument");
+		}
+		if(root == null) {
+			return null;
+		}
+		if(e.getClass() != root.data.getClass()) {
+			throw new ClassCastException("Wrong object type");
+		}
+		Node<E> current = root;
+		Node<E> found = null;
+		while(current != null) {
+			int cmp = current.data.compareTo(e);
+			if(cmp == 0 && inclusive) {
+				return current.data;
+			}
+			if(below ? cmp < 0 : cmp > 0) {
+				found = current;
+				current = below ? current.right : current.left;
+			}
+			else {
+				current = below ? current.left : current.right;
+			}
+		}
+		return found == null ? null : found.data;
+	}
+	
+	/**
+	 * Clears the Binary Search Tree
+	 */
+	public void clear() {
+		root = null;
+		size = 0;
+		modCount++;
+	}
+	
+	/**
+	 * Clones the Treap, creating a shallow copy with the same shape and priorities
+	 * @return shallow copy of Treap
+	 */
+	public Treap<E> clone() {
+		Treap<E> clone = new Treap<E>(random.split());
+		clone.root = copy(root);
+		clone.size = size;
+		return clone;
+	}
+	
+	/**
+	 * Copies a subtree Node by Node
+	 * @param node root of the subtree
+	 * @return root of the copy
+	 */
+	private static <E> Node<E> copy(Node<E> node) {
+		if(node == null) {
+			return null;
+		}
+		Node<E> copy = new Node<E>(node.data, node.priority);
+		copy.left = copy(node.left);
+		copy.right = copy(node.right);
+		copy.height = node.height;
+		copy.leftSize = node.leftSize;
+		copy.rightSize = node.rightSize;
+		return copy;
+	}
+	
+	
+	/**
+	 * 
+	 * Checks whether given object exists in the binary search tree
+	 * @param o Object being searched for
+	 * @return whether object exists in Treap or not
+	 * @throws NullPointerException
+	 * @throws ClassCastException
+	 */
+	@SuppressWarnings("unchecked")
+	public boolean contains(Object o) throws NullPointerException, ClassCastException{
+		if(o == null) { //null parameter
+			throw new NullPointerException("Null parameter");
+		}
+		if(root == null) { //null root
+			return false;
+		}
+		if(o.getClass() != root.data.getClass()) { //wrong class type
+			throw new ClassCastException("Parameter is of wrong type");
+		}
+		if(o.equals(root.data)) { //element is in root
+			return true;
+		}
+		Node<E> current  = root;
+		while(current != null) {
+			
+			if(((Comparable<E>)current.data).compareTo((E) o) == 0) {
+				return true;
+			}
+			
+			else if(((Comparable<E>)current.data).compareTo((E) o) < 0) {
+				current = current.right;
+			}
+			else {
+				current = current.left;
+			}
+		}
+		//object not found
+		return false;
+	}
+	
+	
+	/**
+	 * Checks whether each element in given collection exists within the
+	 * Treap or not. Returns true if all elements exist.
+	 * @param c Collection of items being searched for within this Treap
+	 * @return whether all elements in c exist or not
+	 * @throws NullPointerException
+	 * @throws ClassCastException
+	 */
+	public boolean containsAll(Collection<?> c) throws NullPointerException, ClassCastException {
+		if(c == null) {
+			throw new NullPointerException("Null parameter");
+		}
+		if(root == null) {
+			return false;
+		}
+		for(Object t: c) { //checks each object
+			if(!this.contains(t)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Counts the elements within the given range [fromElement, toElement], inclusive,
+	 * in O(log n) time without visiting them
+	 * @param fromElement lower bound
+	 * @param toElement upper bound
+	 * @return number of elements within the range
+	 * @throws NullPointerException
+	 * @throws IllegalArgumentException
+	 */
+	public int countRange(E fromElement, E toElement) throws NullPointerException, IllegalArgumentException {
+		return countRange(fromElement, true, toElement, true);
+	}
+	
+	/**
+	 * Counts the elements between fromElement and toElement in O(log n) time,
+	 * from the leftSize of the Nodes on two search paths
+	 * @param fromElement lower bound
+	 * @param fromInclusive whether fromElement itself is counted
+	 * @param toElement upper bound
+	 * @param toInclusive whether toElement itself is counted
+	 * @return number of elements within the range
+	 * @throws NullPointerException
+	 * @throws IllegalArgumentException
+	 */
+	public int countRange(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive) throws NullPointerException, IllegalArgumentException {
+		checkRange(fromElement, toElement);
+		//an empty range such as (e, e) would otherwise count -1
+		return Math.max(0, countBelow(toElement, toInclusive) - countBelow(fromElement, !fromInclusive));
+	}
+	
+	/**
+	 * Counts the elements less than e, or less than or equal to e, in a single descent
+	 * @param e element
+	 * @param inclusive whether e itself is counted
+	 * @return number of elements below e
+	 */
+	private int countBelow(E e, boolean inclusive) {
+		int count = 0;
+		Node<E> current = root;
+		while(current != null) {
+			int cmp = current.data.compareTo(e);
+			if(cmp == 0) {
+				return count + current.leftSize + (inclusive ? 1 : 0);
+			}
+			if(cmp < 0) {
+				count += current.leftSize + 1;
+				current = current.right;
+			}
+			else {
+				current = current.left;
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * 
+	 * Compares 2 Treap objects to see if they are equivalent
+	 * @param obj this is being compared to
+	 * @return boolean true if both are equal and false if not equal
+	 */
+	@SuppressWarnings("unchecked")
+	public boolean equals(Object obj) {
+		
+		if(obj == null) {
+			return false;
+		}
+		//same elements
+		if(this.getClass() != obj.getClass()) {
+			return false;
+		}
+		//same reference
+		if(this == obj) {
+			return true;
+		}
+		//Treap are of different lengths
+		if(this.size != ((Treap<E>)obj).size()) {
+			return false;
+		}
+		
+		Iterator<E> thisTreap = this.iterator();
+		Iterator<E> otherTreap = ((Treap<E>)obj).iterator();
+		
+		//uses 2 iterators to maintain O(N) time
+		while(thisTreap.hasNext()) {
+			if(thisTreap.next() != otherTreap.next()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the smallest element in the Treap
+	 * @return first, or smallest element in the Treap
+	 * @throws NoSuchElementException when Treap is empty
+	 */
+	public E first() throws NoSuchElementException {
+		if(root == null) {
+			throw new NoSuchElementException("Set is empty");
+		}
+		
+		Node <E> current = root;
+		while(current.left != null) {
+			current = current.left;
+		}
+		return (E) current.data;
+	}
+	
+	
+	/**
+	 * Returns the largest element less than or equal to e
+	 * or null if there is no such element
+	 * @param e element
+	 * @return largest element less than e
+	 */
+	public E floor(E e) throws NullPointerException, ClassCastException{
+		return nearest(e, true, true);
+	}
+	
+	/**
+	 * Gets the element at the given index (in order) in O(H) time
+	 * @param index
+	 * @return
+	 * @throws IndexOutOfBoundsException
+	 */
+	public E get(int index) throws IndexOutOfBoundsException{
+		if(index < 0 || index >= size()) {
+			throw new IndexOutOfBoundsException("Index out of bounds");
+		}
+		Node<E> current = root;
+		while(index != current.leftSize) {
+			if(index < current.leftSize) {
+				current = current.left;
+			}
+			else {
+				index -= current.leftSize + 1;
+				current = current.right;
+			}
+		}
+		return current.data;
+	}
+	
+	/**
+	 * Returns an ArrayList of generic type E containing all the elements
+	 * within the given range [fromElement, toElement], inclusive.
+	 * The list is sized with countRange and filled by a range iterator.
+	 * @param fromElement lower bound
+	 * @param toElement upper bound
+	 * @return ArrayList of type E containing elements within the range, empty if there are none
+	 * @throws NullPointerException
+	 * @throws IllegalArgumentException
+	 */
+	public ArrayList <E> getRange(E fromElement, E toElement) throws NullPointerException, IllegalArgumentException {
+		ArrayList<E> list = new ArrayList<E>(countRange(fromElement, toElement));
+		Iterator<E> itr = rangeIterator(fromElement, toElement);
+		while(itr.hasNext()) {
+			list.add(itr.next());
+		}
+		return list;
+	}
+	
+	/**
+	 * Checks the bounds of a range
+	 * @param fromElement lower bound
+	 * @param toElement upper bound
+	 * @throws NullPointerException if either bound is null
+	 * @throws IllegalArgumentException if fromElement is greater than toElement
+	 */
+	private void checkRange(E fromElement, E toElement) throws NullPointerException, IllegalArgumentException {
+		if(fromElement == null || toElement == null) {
+			throw new NullPointerException("Parameters can not be null");
+		}
+		if(fromElement.compareTo(toElement) > 0) {
+			throw new IllegalArgumentException("fromElement can not be greater than toElement");
+		}
+	}
+	
+	/**
+	 * Returns height of the Treap
+	 * @return height
+	 */
+	public int height() {
+		if(root == null) {
+			return 0;
+		}
+		
+		return root.height;
+	}
+	
+	/**
+	 * Updates the height of each Node in the Treap
+	 * @param n Node being updated
+	 */
+	private void updateHeight(Node<E> n) {
+		
+		if(n == null) {
+			//do nothing, height is already 0
+		}
+		else if(n.left == null && n.right == null) {
+			n.height = 1; //this is sometimes set to 0
+		}
+		else if (n.left == null) { 
+			n.height = n.right.height + 1;
+		}
+		else if (n.right == null) {
+			n.height = n.left.height + 1;
+		}
+		else {
+			if(n.right.height > n.left.height) {
+				n.height = n.right.height + 1;
+			}
+			else {
+				n.height = n.left.height + 1;
+			}
+		}
+	}
+	
+	/**
+	 * Returns the smallest value in the Treap that is greater than the given parameter.
+	 * Returns null if value doens't exist
+	 * @param e value
+	 * @return E value largest value greater than e
+	 */
+	public E higher(E e) throws ClassCastException, NullPointerException {
+		return nearest(e, false, false);
+	}
+	
+	/**
+	 * Returns true if Treap is empty, false if it is not
+	 * @return size == 0
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	
+	/**
+	 * Returns the lowest element
+	 * @return lowest element
+	 * @throws NoSuchElementException
+	 */
+	public E last() throws NoSuchElementException {
+		
+		if(root == null) {
+			throw new NoSuchElementException("Set is empty");
+		}
+		
+		Node<E> current = root;
+		while(current.right != null) {
+			current = current.right;
+		}
+		return (E)current.data;
+	}
+	
+
+	/**
+	 * Returns the largest value in the Treap that is less than the given parameter.
+	 * Returns null if value doens't exist
+	 * @param e value
+	 * @return E value largest value less than e
+	 */
+	public E lower(E e) throws ClassCastException, NullPointerException{
+		return nearest(e, true, false);
+	}
+	
+	/**
+	 * Moves every element of other into this Treap in O(log n) expected time,
+	 * leaving other empty. Every element of other must be greater than every
+	 * element of this Treap, as after split(E).
+	 * @param other Treap being merged into this one
+	 * @throws NullPointerException if other is null
+	 * @throws IllegalArgumentException if other is this Treap or its elements are not all greater
+	 */
+	public void merge(Treap<E> other) throws NullPointerException, IllegalArgumentException {
+		if(other == null) {
+			throw new NullPointerException("Null parameter");
+		}
+		if(other == this) {
+			throw new IllegalArgumentException("Can not merge a Treap with itself");
+		}
+		if(other.root == null) {
+			return;
+		}
+		if(root != null && last().compareTo(other.first()) >= 0) {
+			throw new IllegalArgumentException("Elements of other must all be greater");
+		}
+		root = merge(root, other.root);
+		size += other.size;
+		modCount++;
+		other.clear();
+	}
+	
+	/**
+	 * Returns an iterator which traverses the Treap in a 
+	 * inOrder traversal
+	 * @return inOrder Iterator
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new Itr(Order.IN);
+	}
+	
+	/**
+	 * Returns an iterator which traverses the Treap in a 
+	 * preOrder traversal
+	 * @return preOrder Iterator
+	 */
+	public Iterator<E> preorderIterator() {
+		return new Itr(Order.PRE);
+		}
+	
+	/**
+	 * Returns an iterator which traverses the Treap in a postorder traversal
+	 * @return postorder Iterator
+	 */
+	public Iterator<E> postorderIterator() {
+
+		return new Itr(Order.POST);
+		}
+	
+	/**
+	 * Returns a lazy iterator over the elements within the given range
+	 * [fromElement, toElement], inclusive, in order
+	 * @param fromElement lower bound
+	 * @param toElement upper bound
+	 * @return Iterator over the range
+	 * @throws NullPointerException
+	 * @throws IllegalArgumentException
+	 */
+	public Iterator<E> rangeIterator(E fromElement, E toElement) throws NullPointerException, IllegalArgumentException {
+		return rangeIterator(fromElement, true, toElement, true, false);
+	}
+	
+	/**
+	 * Returns a lazy iterator over the elements between fromElement and toElement.
+	 * Seeks to the first element in O(log n) and only walks further as next()
+	 * is called, so wide ranges are never copied.
+	 * @param fromElement lower bound
+	 * @param fromInclusive whether fromElement itself is returned
+	 * @param toElement upper bound
+	 * @param toInclusive whether toElement itself is returned
+	 * @param descending whether to go from toElement down to fromElement
+	 * @return Iterator over the range
+	 * @throws NullPointerException
+	 * @throws IllegalArgumentException
+	 */
+	public Iterator<E> rangeIterator(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive,
+			boolean descending) throws NullPointerException, IllegalArgumentException {
+		checkRange(fromElement, toElement);
+		return new RangeItr(fromElement, fromInclusive, toElement, toInclusive, descending);
+	}
+	
+	/**
+	 * Returns a sequential Stream of the elements within the given range
+	 * [fromElement, toElement], inclusive, in order
+	 * @param fromElement lower bound
+	 * @param toElement upper bound
+	 * @return Stream over the range
+	 * @throws NullPointerException
+	 * @throws IllegalArgumentException
+	 */
+	public Stream<E> rangeStream(E fromElement, E toElement) throws NullPointerException, IllegalArgumentException {
+		return rangeStream(fromElement, true, toElement, true, false);
+	}
+	
+	/**
+	 * Returns a sequential Stream of the elements between fromElement and toElement,
+	 * backed by rangeIterator and sized by countRange
+	 * @param fromElement lower bound
+	 * @param fromInclusive whether fromElement itself is returned
+	 * @param toElement upper bound
+	 * @param toInclusive whether toElement itself is returned
+	 * @param descending whether to go from toElement down to fromElement
+	 * @return Stream over the range
+	 * @throws NullPointerException
+	 * @throws IllegalArgumentException
+	 */
+	public Stream<E> rangeStream(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive,
+			boolean descending) throws NullPointerException, IllegalArgumentException {
+		Iterator<E> itr = rangeIterator(fromElement, fromInclusive, toElement, toInclusive, descending);
+		int count = countRange(fromElement, fromInclusive, toElement, toInclusive);
+		return StreamSupport.stream(Spliterators.spliterator(itr, count,
+				Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+	}
+	
+	/**
+	 * function removes given element inside a Treap, returns true. Returns false
+	 * if element was not found.
+	 * Descends once, replaces the Node with the merge of its two subtrees,
+	 * then updates the Nodes above it.
+	 * @param o element being removed
+	 * @return whether element has been found and removed or not
+	 */
+	@SuppressWarnings("unchecked")
+	public boolean remove(Object o) throws ClassCastException, NullPointerException {
+		if(o == null) {
+			throw new NullPointerException("Specified element is null");
+		}
+		ArrayDeque<Node<E>> path = new ArrayDeque<Node<E>>();
+		Node<E> node = root;
+		while(node != null) {
+			int cmp = ((Comparable<E>) o).compareTo(node.data);
+			if(cmp == 0) {
+				break;
+			}
+			path.push(node);
+			node = cmp < 0 ? node.left : node.right;
+		}
+		if(node == null) {
+			return false;
+		}
+		Node<E> merged = merge(node.left, node.right);
+		Node<E> parent = path.peek();
+		if(parent == null) {
+			root = merged;
+		}
+		else if(parent.left == node) {
+			parent.left = merged;
+		}
+		else {
+			parent.right = merged;
+		}
+		//deepest Node first
+		for(Node<E> ancestor: path) {
+			update(ancestor);
+		}
+		size--;
+		modCount++;
+		return true;
+	}
+	
+	/**
+	 * Returns the size of the Treap, or how many elements are in it
+	 * @return size of the Treap
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Moves every element greater than or equal to e into a new Treap in
+	 * O(log n) expected time. merge(Treap) puts them back.
+	 * @param e element to split around
+	 * @return Treap of the elements greater than or equal to e
+	 * @throws NullPointerException when element is null
+	 */
+	public Treap<E> split(E e) throws NullPointerException {
+		if(e == null) {
+			throw new NullPointerException("Null argument");
+		}
+		Node<E>[] halves = newHalves();
+		split(root, e, halves);
+		Treap<E> upper = new Treap<E>(random.split());
+		upper.root = halves[1];
+		upper.size = sizeOf(upper.root);
+		root = halves[0];
+		size -= upper.size;
+		modCount++;
+		return upper;
+	}
+	
+	/**
+	 * Utilizes iterator (inorder) to place elements of Treap into array
+	 * @return array of Objects in sorted order
+	 */
+	public Object[] toArray() {
+		int count = 0;
+		Object[] arr = new Object[size];
+		Iterator<E> itr = this.iterator();
+		
+		while(itr.hasNext()) { //using iterator to update each index of array
+			arr[count++] = itr.next();
+		}
+		return arr;
+	}
+	
+	/**
+	 * Returns a String representation of Treap in order
+	 */
+	public String toString() {
+		return Arrays.toString(this.toArray());
+		}
+	
+
+	/**
+	 * Formats the Treap for a readable output
+	 * @param tree root of the Treap
+	 * @param level of the node
+	 * @param output formatted Treap
+	 */
+	private void preOrderPrint(Node<E> tree, int level, StringBuilder output) {
+		output.append("\n");
+		if (level > 0) {
+			for (int i = 0; i < level - 1; i++) {
+				output.append("   ");
+			}
+			output.append("|--");
+		}
+		if (tree == null) {
+			output.append("null");
+			return;
+		}
+		output.append(tree.data);
+		preOrderPrint(tree.left, level + 1, output);
+		preOrderPrint(tree.right, level + 1, output);
+	}
+
+
+   /**
+    * Returns a formatted and readable Treap 
+    * @return formatted Treap
+    */
+    public String toStringTreeFormat() {
+
+        StringBuilder s = new StringBuilder();
+
+        preOrderPrint(root, 0, s);
+        return s.toString();
+    }
+	
+	
+}
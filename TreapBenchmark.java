@@ -0,0 +1,130 @@
+package bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import project6.AVL;
+import project6.BST;
+import project6.Treap;
+
+/**
+ * Compares Treap with BST and AVL on mixes of add, remove and contains.
+ * Each tree starts with size random keys from [0, 2 * size). The keys of the
+ * operations come from the key stream over the same range, so under SORTED
+ * they sweep the keys in order and consecutive adds land next to each other
+ * in the tree. INSERT_HEAVY is 70% add,
+ * 20% remove and 10% contains, DELETE_HEAVY is 20% add, 70% remove and
+ * 10% contains. The trees are refilled before every measurement iteration.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TreapBenchmark {
+
+	/**
+	 * Operations the benchmark needs from every tree
+	 */
+	private interface Target {
+		boolean add(Integer e);
+		boolean remove(Integer e);
+		boolean contains(Integer e);
+	}
+
+	@Param({"TREAP", "AVL", "BST"})
+	public String impl;
+
+	@Param({"10000", "100000", "1000000"})
+	public int size;
+
+	@Param({"INSERT_HEAVY", "DELETE_HEAVY"})
+	public String mix;
+
+	@Param({"UNIFORM", "SORTED"})
+	public KeyStream stream;
+
+	private Integer[] initial;
+	private Integer[] keys;
+	private int[] dice;
+	private int addPercent;
+	private int removePercent;
+
+	private Target target;
+	private int cursor;
+
+	@Setup(Level.Trial)
+	public void generateKeys() {
+		initial = KeyStream.UNIFORM.boxed(2 * size, 42);
+		keys = stream.boxed(2 * size, 7);
+		dice = new int[keys.length];
+		SplittableRandom random = new SplittableRandom(11);
+		for(int i = 0; i < dice.length; i++) {
+			dice[i] = random.nextInt(100);
+		}
+		addPercent = mix.equals("INSERT_HEAVY") ? 70 : 20;
+		removePercent = mix.equals("INSERT_HEAVY") ? 20 : 70;
+	}
+
+	@Setup(Level.Iteration)
+	public void fill() {
+		if(impl.equals("TREAP")) {
+			Treap<Integer> tree = new Treap<Integer>();
+			target = new Target() {
+				public boolean add(Integer e) { return tree.add(e); }
+				public boolean remove(Integer e) { return tree.remove(e); }
+				public boolean contains(Integer e) { return tree.contains(e); }
+			};
+		}
+		else if(impl.equals("AVL")) {
+			AVL<Integer> tree = new AVL<Integer>();
+			target = new Target() {
+				public boolean add(Integer e) { return tree.add(e); }
+				public boolean remove(Integer e) { return tree.remove(e); }
+				public boolean contains(Integer e) { return tree.contains(e); }
+			};
+		}
+		else {
+			BST<Integer> tree = new BST<Integer>();
+			target = new Target() {
+				public boolean add(Integer e) { return tree.add(e); }
+				public boolean remove(Integer e) { return tree.remove(e); }
+				public boolean contains(Integer e) { return tree.contains(e); }
+			};
+		}
+		for(int i = 0; i < size; i++) {
+			target.add(initial[i]);
+		}
+		cursor = 0;
+	}
+
+	@Benchmark
+	public boolean mixed() {
+		if(++cursor == keys.length) {
+			cursor = 0;
+		}
+		Integer key = keys[cursor];
+		int roll = dice[cursor];
+		if(roll < addPercent) {
+			return target.add(key);
+		}
+		if(roll < addPercent + removePercent) {
+			return target.remove(key);
+		}
+		return target.contains(key);
+	}
+}
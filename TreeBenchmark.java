@@ -0,0 +1,238 @@
+package bench;
+
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import project6.AVL;
+import project6.BST;
+import project6.TreeMetrics;
+
+/**
+ * Benchmarks the public operations of AVL and BST next to java.util.TreeSet.
+ * The structures are filled with the even keys 2k for every key k of the stream,
+ * lookups that miss use the odd keys 2k+1. The BST is built with BST(E[]),
+ * which adds the keys median first, because adding them in stream order would
+ * turn it into a chain under SORTED and REVERSE_SORTED and take quadratic time.
+ * The stream still decides the order of its operations.
+ *
+ * The structures are built once per trial and only read by the benchmarks
+ * that take no arguments. add and remove change the size of the tree, so they
+ * run on the copies in Mutable, which are taken again before every iteration.
+ * A copy keeps the shape of its source, so it skips the sorting and the
+ * rebalancing of a full build.
+ * Once remove has gone through every key of the stream the remaining calls
+ * measure the miss path.
+ *
+ * The Metered benchmarks run on a copy of the AVL that records into a
+ * TreeMetrics, to show what turning metrics on costs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TreeBenchmark {
+
+	@Param({"1000", "10000", "100000", "1000000", "10000000"})
+	public int size;
+
+	@Param({"UNIFORM", "SORTED", "REVERSE_SORTED", "ZIPFIAN"})
+	public KeyStream stream;
+
+	private Integer[] present;
+	private Integer[] absent;
+	private int[] indices;
+
+	private AVL<Integer> avl;
+	private AVL<Integer> avlMetered;
+	private BST<Integer> bst;
+	private TreeSet<Integer> treeSet;
+	private int cursor;
+
+	/**
+	 * Copies of the structures for the benchmarks that add or remove
+	 */
+	@State(Scope.Thread)
+	public static class Mutable {
+		private AVL<Integer> avl;
+		private AVL<Integer> avlMetered;
+		private BST<Integer> bst;
+		private TreeSet<Integer> treeSet;
+
+		@Setup(Level.Iteration)
+		public void copy(TreeBenchmark source) {
+			avl = source.avl.clone();
+			avlMetered = source.avl.clone();
+			avlMetered.setMetrics(new TreeMetrics());
+			bst = source.bst.clone();
+			treeSet = new TreeSet<Integer>(source.treeSet);
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void fill() {
+		int[] keys = stream.generate(size, 42);
+		present = new Integer[size];
+		absent = new Integer[size];
+		for(int i = 0; i < size; i++) {
+			present[i] = keys[i] * 2;
+			absent[i] = keys[i] * 2 + 1;
+		}
+		avl = new AVL<Integer>();
+		treeSet = new TreeSet<Integer>();
+		for(Integer key: present) {
+			avl.add(key);
+			treeSet.add(key);
+		}
+		bst = new BST<Integer>(present.clone());
+		avlMetered = avl.clone();
+		avlMetered.setMetrics(new TreeMetrics());
+		//random positions inside the (deduplicated) tree for get(int)
+		indices = KeyStream.UNIFORM.generate(size, 7);
+		for(int i = 0; i < size; i++) {
+			indices[i] = indices[i] % avl.size();
+		}
+	}
+
+	/**
+	 * Moves to the next key of the stream, wrapping around at the end
+	 * @return position of the next key
+	 */
+	private int next() {
+		if(++cursor == size) {
+			cursor = 0;
+		}
+		return cursor;
+	}
+
+	@Benchmark
+	public boolean avlAdd(Mutable copy) {
+		return copy.avl.add(absent[next()]);
+	}
+
+	@Benchmark
+	public boolean avlAddMetered(Mutable copy) {
+		return copy.avlMetered.add(absent[next()]);
+	}
+
+	@Benchmark
+	public boolean bstAdd(Mutable copy) {
+		return copy.bst.add(absent[next()]);
+	}
+
+	@Benchmark
+	public boolean treeSetAdd(Mutable copy) {
+		return copy.treeSet.add(absent[next()]);
+	}
+
+	@Benchmark
+	public boolean avlContainsHit() {
+		return avl.contains(present[next()]);
+	}
+
+	@Benchmark
+	public boolean avlContainsHitMetered() {
+		return avlMetered.contains(present[next()]);
+	}
+
+	@Benchmark
+	public boolean bstContainsHit() {
+		return bst.contains(present[next()]);
+	}
+
+	@Benchmark
+	public boolean treeSetContainsHit() {
+		return treeSet.contains(present[next()]);
+	}
+
+	@Benchmark
+	public boolean avlContainsMiss() {
+		return avl.contains(absent[next()]);
+	}
+
+	@Benchmark
+	public boolean bstContainsMiss() {
+		return bst.contains(absent[next()]);
+	}
+
+	@Benchmark
+	public boolean treeSetContainsMiss() {
+		return treeSet.contains(absent[next()]);
+	}
+
+	@Benchmark
+	public boolean avlRemove(Mutable copy) {
+		return copy.avl.remove(present[next()]);
+	}
+
+	@Benchmark
+	public boolean bstRemove(Mutable copy) {
+		return copy.bst.remove(present[next()]);
+	}
+
+	@Benchmark
+	public boolean treeSetRemove(Mutable copy) {
+		return copy.treeSet.remove(present[next()]);
+	}
+
+	/**
+	 * TreeSet has no positional access, so this one has no baseline
+	 * @return element at a random index
+	 */
+	@Benchmark
+	public Integer avlGet() {
+		return avl.get(indices[next()]);
+	}
+
+	@Benchmark
+	public Integer bstGet() {
+		return bst.get(indices[next()]);
+	}
+
+	/**
+	 * Inverse of avlGet, TreeSet needs headSet(e).size() which is O(n)
+	 * @return index of a present key
+	 */
+	@Benchmark
+	public int avlRank() {
+		return avl.rank(present[next()]);
+	}
+
+	@Benchmark
+	public Integer avlPercentile() {
+		return avl.percentile(99);
+	}
+
+	@Benchmark
+	public long avlStreamSum() {
+		return avl.stream().mapToLong(Integer::longValue).sum();
+	}
+
+	/**
+	 * Splits by index, so the work divides evenly over the fork-join pool
+	 * @return sum of the elements
+	 */
+	@Benchmark
+	public long avlParallelStreamSum() {
+		return avl.parallelStream().mapToLong(Integer::longValue).sum();
+	}
+
+	@Benchmark
+	public long treeSetParallelStreamSum() {
+		return treeSet.parallelStream().mapToLong(Integer::longValue).sum();
+	}
+}
@@ -0,0 +1,191 @@
+package project6;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class collects operation counts from an AVL or a BST.
+ * Trees start without metrics and only check a null field on their hot paths;
+ * once setMetrics is called they record into this object. All counters are
+ * LongAdders, which stripe their cells across threads, so one TreeMetrics can
+ * be shared by several trees and read while they are in use.
+ *
+ * A search is the descent of add, remove, contains, get, floor, ceiling, lower
+ * or higher. Each one records how many Nodes it visited in the depth histogram
+ * and in nodeVisits. Comparisons are counted one by one, including the ones made
+ * outside of searches such as in ranges and set operations.
+ */
+public class TreeMetrics {
+
+	/**
+	 * Kinds of AVL rebalancing, named after the side the unbalanced
+	 * Node is heavy on. LL and RR are single rotations, LR and RL double.
+	 */
+	public enum Rotation { LL, RR, LR, RL }
+
+	//searches deeper than this share the last bucket of the depth histogram
+	public static final int MAX_DEPTH = 64;
+
+	private final LongAdder comparisons = new LongAdder();
+	private final LongAdder nodeVisits = new LongAdder();
+	private final LongAdder predecessorRemovals = new LongAdder();
+	private final LongAdder[] rotations = newAdders(Rotation.values().length);
+	private final LongAdder[] depths = newAdders(MAX_DEPTH + 1);
+
+	/**
+	 * Creates an array of zeroed counters
+	 * @param length number of counters
+	 * @return array of LongAdders
+	 */
+	private static LongAdder[] newAdders(int length) {
+		LongAdder[] adders = new LongAdder[length];
+		for(int i = 0; i < length; i++) {
+			adders[i] = new LongAdder();
+		}
+		return adders;
+	}
+
+	/**
+	 * Records one comparison between two elements
+	 */
+	void compared() {
+		comparisons.increment();
+	}
+
+	/**
+	 * Records a search that visited depth Nodes
+	 * @param depth number of Nodes visited, 0 for an empty tree
+	 */
+	void searched(int depth) {
+		nodeVisits.add(depth);
+		depths[Math.min(depth, MAX_DEPTH)].increment();
+	}
+
+	/**
+	 * Records a rebalancing of an AVL
+	 * @param rotation kind of rotation
+	 */
+	void rotated(Rotation rotation) {
+		rotations[rotation.ordinal()].increment();
+	}
+
+	/**
+	 * Records a remove of a Node with two children, which takes the value of
+	 * its predecessor so that the predecessor's Node is unlinked instead
+	 */
+	void removedPredecessor() {
+		predecessorRemovals.increment();
+	}
+
+	/**
+	 * Returns the number of comparisons between elements
+	 * @return comparisons
+	 */
+	public long comparisons() {
+		return comparisons.sum();
+	}
+
+	/**
+	 * Returns the number of Nodes visited by all searches
+	 * @return node visits
+	 */
+	public long nodeVisits() {
+		return nodeVisits.sum();
+	}
+
+	/**
+	 * Returns the number of searches
+	 * @return searches
+	 */
+	public long searches() {
+		long searches = 0;
+		for(LongAdder depth: depths) {
+			searches += depth.sum();
+		}
+		return searches;
+	}
+
+	/**
+	 * Returns the number of rotations of one kind
+	 * @param rotation kind of rotation
+	 * @return rotations of that kind
+	 */
+	public long rotations(Rotation rotation) {
+		return rotations[rotation.ordinal()].sum();
+	}
+
+	/**
+	 * Returns the number of rotations of every kind
+	 * @return rotations
+	 */
+	public long rotations() {
+		long total = 0;
+		for(LongAdder rotation: rotations) {
+			total += rotation.sum();
+		}
+		return total;
+	}
+
+	/**
+	 * Returns the number of removes that unlinked the predecessor's Node
+	 * @return predecessor removals
+	 */
+	public long predecessorRemovals() {
+		return predecessorRemovals.sum();
+	}
+
+	/**
+	 * Returns how many searches visited each number of Nodes. The last
+	 * bucket also counts every search deeper than MAX_DEPTH.
+	 * @return array of MAX_DEPTH + 1 counts indexed by depth
+	 */
+	public long[] depthHistogram() {
+		long[] histogram = new long[depths.length];
+		for(int i = 0; i < depths.length; i++) {
+			histogram[i] = depths[i].sum();
+		}
+		return histogram;
+	}
+
+	/**
+	 * Sets every counter back to 0. Counts recorded while reset runs
+	 * may or may not be kept.
+	 */
+	public void reset() {
+		comparisons.reset();
+		nodeVisits.reset();
+		predecessorRemovals.reset();
+		for(LongAdder rotation: rotations) {
+			rotation.reset();
+		}
+		for(LongAdder depth: depths) {
+			depth.reset();
+		}
+	}
+
+	/**
+	 * Returns the counters on one line, with the depth histogram cut
+	 * after its deepest non-empty bucket
+	 * @return counters as a String
+	 */
+	@Override
+	public String toString() {
+		StringBuilder output = new StringBuilder();
+		output.append("comparisons=").append(comparisons());
+		output.append(" nodeVisits=").append(nodeVisits());
+		output.append(" searches=").append(searches());
+		for(Rotation rotation: Rotation.values()) {
+			output.append(' ').append(rotation).append('=').append(rotations(rotation));
+		}
+		output.append(" predecessorRemovals=").append(predecessorRemovals());
+		long[] histogram = depthHistogram();
+		int deepest = histogram.length - 1;
+		while(deepest > 0 && histogram[deepest] == 0) {
+			deepest--;
+		}
+		output.append(" depths=[");
+		for(int i = 0; i <= deepest; i++) {
+			output.append(i == 0 ? "" : ", ").append(histogram[i]);
+		}
+		return output.append(']').toString();
+	}
+}
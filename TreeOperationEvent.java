@@ -0,0 +1,38 @@
+package project6;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * JDK Flight Recorder event for a slow operation on an AVL or a BST.
+ * The operation begins the event on entry and only fills it in and commits it
+ * if shouldCommit() says it ran past the threshold, so under normal latency
+ * or without a recording it costs a timestamp and nothing else.
+ * The threshold can be changed in the recording settings, for example
+ * project6.TreeOperation#threshold=100 us.
+ */
+@Name("project6.TreeOperation")
+@Label("Tree Operation")
+@Category({"Data Structures", "Trees"})
+@Description("Slow add, remove, getRange or iterator creation on an AVL or BST")
+@Threshold("1 ms")
+class TreeOperationEvent extends Event {
+
+	@Label("Structure")
+	String structure;
+
+	@Label("Operation")
+	String operation;
+
+	@Label("Size")
+	@Description("Number of elements after the operation")
+	int size;
+
+	@Label("Visited")
+	@Description("Number of Nodes the operation visited")
+	long visited;
+}
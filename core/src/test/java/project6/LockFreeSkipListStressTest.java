@@ -0,0 +1,151 @@
+package project6;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs LockFreeSkipList under several threads and checks the guarantees that
+ * hold no matter how the threads interleave.
+ */
+public class LockFreeSkipListStressTest {
+
+	private static final int KEYS = 1 << 16;
+
+	/**
+	 * Runs each task on its own thread, all starting together, and rethrows
+	 * the first failure
+	 * @param tasks bodies of the threads
+	 */
+	private static void runConcurrently(List<Runnable> tasks) throws Throwable {
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		List<Thread> threads = new ArrayList<Thread>();
+		for(Runnable task: tasks) {
+			Thread thread = new Thread(() -> {
+				try {
+					start.await();
+					task.run();
+				}
+				catch(Throwable t) {
+					failure.compareAndSet(null, t);
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+		start.countDown();
+		for(Thread thread: threads) {
+			thread.join();
+		}
+		if(failure.get() != null) {
+			throw failure.get();
+		}
+	}
+
+	/**
+	 * Every thread adds and removes only its own keys, so for those keys it
+	 * knows the exact state of the set at any time, whatever the others do
+	 */
+	@Test
+	public void addRemoveContainsOnDisjointKeys() throws Throwable {
+		LockFreeSkipList<Integer> set = new LockFreeSkipList<Integer>();
+		int threads = 4;
+		boolean[][] expected = new boolean[threads][KEYS / threads];
+		List<Runnable> tasks = new ArrayList<Runnable>();
+		for(int t = 0; t < threads; t++) {
+			int id = t;
+			tasks.add(() -> {
+				SplittableRandom random = new SplittableRandom(id);
+				boolean[] mine = expected[id];
+				for(int i = 0; i < 400_000; i++) {
+					int slot = random.nextInt(mine.length);
+					Integer key = slot * threads + id;
+					int op = random.nextInt(3);
+					if(op == 0) {
+						assertEquals(!mine[slot], set.add(key), "add " + key);
+						mine[slot] = true;
+					}
+					else if(op == 1) {
+						assertEquals(mine[slot], set.remove(key), "remove " + key);
+						mine[slot] = false;
+					}
+					else {
+						assertEquals(mine[slot], set.contains(key), "contains " + key);
+					}
+				}
+			});
+		}
+		runConcurrently(tasks);
+
+		int count = 0;
+		for(int t = 0; t < threads; t++) {
+			for(int slot = 0; slot < KEYS / threads; slot++) {
+				Integer key = slot * threads + t;
+				assertEquals(expected[t][slot], set.contains(key), "contains " + key);
+				count += expected[t][slot] ? 1 : 0;
+			}
+		}
+		assertEquals(count, set.size());
+		Integer previous = null;
+		for(Integer e: set) {
+			assertTrue(previous == null || previous < e, "out of order at " + e);
+			previous = e;
+		}
+	}
+
+	/**
+	 * The even keys stay in the set the whole time while a writer adds and
+	 * removes odd keys, so the lookups of even keys have exact answers
+	 */
+	@Test
+	public void navigationWhileOddKeysChange() throws Throwable {
+		LockFreeSkipList<Integer> set = new LockFreeSkipList<Integer>();
+		for(int key = 0; key < KEYS; key += 2) {
+			set.add(key);
+		}
+		AtomicBoolean done = new AtomicBoolean();
+		List<Runnable> tasks = new ArrayList<Runnable>();
+		tasks.add(() -> {
+			SplittableRandom random = new SplittableRandom(1);
+			for(int i = 0; i < 1_000_000; i++) {
+				int key = random.nextInt(KEYS / 2) * 2 + 1;
+				if(random.nextBoolean()) {
+					set.add(key);
+				}
+				else {
+					set.remove(key);
+				}
+			}
+			done.set(true);
+		});
+		for(int r = 0; r < 2; r++) {
+			int seed = r + 2;
+			tasks.add(() -> {
+				SplittableRandom random = new SplittableRandom(seed);
+				while(!done.get()) {
+					Integer key = random.nextInt(KEYS / 2 - 2) * 2 + 2;
+					assertTrue(set.contains(key), "contains " + key);
+					assertEquals(key, set.floor(key), "floor " + key);
+					assertEquals(key, set.ceiling(key), "ceiling " + key);
+					int higher = set.higher(key);
+					assertTrue(higher == key + 1 || higher == key + 2, "higher " + key + " = " + higher);
+					int lower = set.lower(key);
+					assertTrue(lower == key - 1 || lower == key - 2, "lower " + key + " = " + lower);
+					List<Integer> range = set.getRange(key, key + 1);
+					assertEquals(key, range.get(0), "getRange " + key + " = " + range);
+					assertTrue(range.size() <= 2 && range.get(range.size() - 1) <= key + 1, "getRange " + key + " = " + range);
+				}
+			});
+		}
+		runConcurrently(tasks);
+	}
+}